@@ -0,0 +1,68 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.shadabshamsi.catalogservice.config.IsbnFilterProperties;
+import com.shadabshamsi.catalogservice.config.PaginationProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Service logic against an in-memory repository. There is no Spring proxy in front of the
+ * service, so {@code @Cacheable} is not applied and every lookup reaches the repository stub.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookServiceBenchmark {
+    private static final int CATALOG_SIZE = 10_000;
+
+    private InMemoryBookRepository bookRepository;
+    private BookService bookService;
+    private String[] isbns;
+    private int lookups;
+    private long nextIsbn;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        bookRepository = new InMemoryBookRepository();
+        // Never rebuilt here, so the filter answers "maybe" and the repository is always asked.
+        var isbnFilter = new IsbnFilter(null, null, new IsbnFilterProperties());
+        bookService = new BookService(bookRepository, new PaginationProperties(), isbnFilter,
+                new CatalogVersion(() -> 0L), new ConcurrentMapCacheManager(BookService.BOOKS_CACHE),
+                new SimpleMeterRegistry());
+        isbns = new String[CATALOG_SIZE];
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            isbns[i] = String.valueOf(1_000_000_000L + i);
+            bookRepository.save(Book.of(isbns[i], "Title " + i, "Author " + i, 9.90, "Polarsophia"));
+        }
+        nextIsbn = 2_000_000_000L;
+    }
+
+    @Benchmark
+    public Book viewBookDetails() {
+        return bookService.viewBookDetails(isbns[lookups++ % CATALOG_SIZE]);
+    }
+
+    @Benchmark
+    public Book addBookToCatalog() {
+        return bookService.addBookToCatalog(
+                Book.of(String.valueOf(nextIsbn++), "Title", "Author", 9.90, "Polarsophia"));
+    }
+}
@@ -0,0 +1,195 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.dao.DuplicateKeyException;
+
+/**
+ * Map-backed {@link BookRepository} so service benchmarks measure our code rather than the database.
+ */
+class InMemoryBookRepository implements BookRepository {
+    private final ConcurrentSkipListMap<Long, Book> booksById = new ConcurrentSkipListMap<>();
+    private final Map<String, Book> booksByIsbn = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Override
+    public Optional<Book> findByIsbn(String isbn) {
+        return Optional.ofNullable(booksByIsbn.get(isbn));
+    }
+
+    @Override
+    public Book insert(Book book) {
+        if (booksByIsbn.containsKey(book.isbn())) {
+            throw new DuplicateKeyException("duplicate key value violates unique constraint \"book_isbn_key\"");
+        }
+        return save(book);
+    }
+
+    @Override
+    public Book upsert(Book book) {
+        return findByIsbn(book.isbn()).map(existingBook -> save(withIdAndVersion(book, existingBook)))
+                .orElseGet(() -> save(book));
+    }
+
+    @Override
+    public Optional<Book> updateIfVersion(Book book, BookVersion expected) {
+        return findByIsbn(book.isbn()).filter(existingBook -> BookVersion.of(existingBook).equals(expected))
+                .map(existingBook -> save(withIdAndVersion(book, existingBook)));
+    }
+
+    private static Book withIdAndVersion(Book book, Book existingBook) {
+        return new Book(existingBook.id(), book.isbn(), book.title(), book.author(), book.price(),
+                book.publisher(), existingBook.createdDate(), book.lastModifiedDate(), existingBook.createdBy(),
+                book.lastModifiedBy(), existingBook.version());
+    }
+
+    @Override
+    public Optional<BookVersion> findVersionByIsbn(String isbn) {
+        return findByIsbn(isbn).map(BookVersion::of);
+    }
+
+    @Override
+    public List<Book> findByIsbns(String[] isbns) {
+        return Arrays.stream(isbns).map(booksByIsbn::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public Optional<BookProjection> findProjectionByIsbn(Set<BookField> fields, String isbn) {
+        return findByIsbn(isbn).map(book -> BookProjection.of(book, fields));
+    }
+
+    @Override
+    public List<BookProjection> findProjectionPageAfter(Set<BookField> fields, long after, int limit) {
+        return findPageAfter(after, limit).stream().map(book -> BookProjection.of(book, fields)).toList();
+    }
+
+    @Override
+    public List<Book> findPage(BookFilter filter, BookSort sort, BookCursor after, int limit) {
+        Comparator<Book> order = sort == BookSort.ID ? Comparator.comparing(Book::id)
+                : Comparator.comparing(Book::price).thenComparing(Book::id);
+        if (sort == BookSort.PRICE_DESC) {
+            order = order.reversed();
+        }
+        var cursorOrder = order;
+        return booksById.values().stream()
+                .filter(book -> filter.author() == null || filter.author().equals(book.author()))
+                .filter(book -> filter.publisher() == null || filter.publisher().equals(book.publisher()))
+                .filter(book -> filter.minPrice() == null || book.price() >= filter.minPrice())
+                .filter(book -> filter.maxPrice() == null || book.price() <= filter.maxPrice())
+                .filter(book -> after == null || cursorOrder.compare(book, cursorBook(after)) > 0)
+                .sorted(order)
+                .limit(limit)
+                .toList();
+    }
+
+    private static Book cursorBook(BookCursor cursor) {
+        return new Book(cursor.id(), null, null, null, cursor.price(), null, null, null, null, null, 0);
+    }
+
+    @Override
+    public List<Book> findPageAfter(long after, int limit) {
+        return booksById.tailMap(after, false).values().stream().limit(limit).toList();
+    }
+
+    @Override
+    public List<Book> search(String query, int limit, long offset) {
+        return booksById.values().stream()
+                .filter(book -> book.title().contains(query) || book.author().contains(query))
+                .skip(offset)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public void deleteByIsbn(String isbn) {
+        var book = booksByIsbn.remove(isbn);
+        if (book != null) {
+            booksById.remove(book.id());
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends Book> S save(S book) {
+        long id = book.id() != null ? book.id() : sequence.incrementAndGet();
+        var savedBook = new Book(id, book.isbn(), book.title(), book.author(), book.price(), book.publisher(),
+                book.createdDate(), book.lastModifiedDate(), book.createdBy(), book.lastModifiedBy(),
+                book.version() + 1);
+        booksById.put(id, savedBook);
+        booksByIsbn.put(savedBook.isbn(), savedBook);
+        return (S) savedBook;
+    }
+
+    @Override
+    public <S extends Book> Iterable<S> saveAll(Iterable<S> books) {
+        var savedBooks = new ArrayList<S>();
+        books.forEach(book -> savedBooks.add(save(book)));
+        return savedBooks;
+    }
+
+    @Override
+    public Optional<Book> findById(Long id) {
+        return Optional.ofNullable(booksById.get(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return booksById.containsKey(id);
+    }
+
+    @Override
+    public Iterable<Book> findAll() {
+        return List.copyOf(booksById.values());
+    }
+
+    @Override
+    public Iterable<Book> findAllById(Iterable<Long> ids) {
+        var books = new ArrayList<Book>();
+        ids.forEach(id -> findById(id).ifPresent(books::add));
+        return books;
+    }
+
+    @Override
+    public long count() {
+        return booksById.size();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        var book = booksById.remove(id);
+        if (book != null) {
+            booksByIsbn.remove(book.isbn());
+        }
+    }
+
+    @Override
+    public void delete(Book book) {
+        deleteById(book.id());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Book> books) {
+        books.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        booksById.clear();
+        booksByIsbn.clear();
+    }
+}
@@ -0,0 +1,68 @@
+package com.shadabshamsi.catalogservice.web;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import com.shadabshamsi.catalogservice.domain.Book;
+import com.shadabshamsi.catalogservice.domain.BookAlreadyExistsException;
+import com.shadabshamsi.catalogservice.domain.BookNotFoundException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Builds each exception the way the request path does and maps it, so construction is measured
+ * too. BookNotFoundException captures no stack trace; the other two still do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookControllerAdviceBenchmark {
+    private final BookControllerAdvice advice = new BookControllerAdvice(new SimpleMeterRegistry());
+    private MethodParameter bookParameter;
+    private BeanPropertyBindingResult bindingResult;
+
+    @Setup
+    public void setUp() throws Exception {
+        bookParameter = new MethodParameter(BookController.class.getMethod("post", Book.class), 0);
+        var invalidBook = Book.of("a234567890", "", "Author", -10.50, null);
+        var validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        bindingResult = new BeanPropertyBindingResult(invalidBook, "book");
+        validator.validate(invalidBook, bindingResult);
+        validator.close();
+    }
+
+    @Benchmark
+    public String bookNotFound() {
+        return advice.handleBookNotFoundException(new BookNotFoundException("1234567890"));
+    }
+
+    @Benchmark
+    public String bookAlreadyExists() {
+        return advice.handleBookAlreadyExistsException(new BookAlreadyExistsException("1234567890"));
+    }
+
+    @Benchmark
+    public Map<String, String> validationErrors() {
+        return advice.handleMethodArgumentNotValidException(
+                new MethodArgumentNotValidException(bookParameter, bindingResult));
+    }
+}
@@ -0,0 +1,85 @@
+package com.shadabshamsi.catalogservice.web;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.shadabshamsi.catalogservice.domain.Book;
+
+/**
+ * The same shapes as {@code BookJsonTests}, for a single book and for a list of books.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookJsonBenchmark {
+
+    @Param({"100"})
+    private int listSize;
+
+    private final Book book = Book.of("1234567890", "Title", "Author", 10.5, null);
+    private ObjectWriter bookWriter;
+    private ObjectReader bookReader;
+    private ObjectWriter bookListWriter;
+    private ObjectReader bookListReader;
+    private List<Book> books;
+    private byte[] bookJson;
+    private byte[] bookListJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Same defaults Spring Boot applies to the ObjectMapper used by the web layer
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        var listType = new TypeReference<List<Book>>() { };
+        bookWriter = objectMapper.writerFor(Book.class);
+        bookReader = objectMapper.readerFor(Book.class);
+        bookListWriter = objectMapper.writerFor(listType);
+        bookListReader = objectMapper.readerFor(listType);
+        books = IntStream.range(0, listSize)
+                .mapToObj(i -> Book.of(String.valueOf(1_000_000_000L + i), "Title " + i, "Author " + i,
+                        10.5, "Polarsophia"))
+                .toList();
+        bookJson = bookWriter.writeValueAsBytes(book);
+        bookListJson = bookListWriter.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] serializeBook() throws Exception {
+        return bookWriter.writeValueAsBytes(book);
+    }
+
+    @Benchmark
+    public Book deserializeBook() throws Exception {
+        return bookReader.readValue(bookJson);
+    }
+
+    @Benchmark
+    public byte[] serializeBookList() throws Exception {
+        return bookListWriter.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public List<Book> deserializeBookList() throws Exception {
+        return bookListReader.readValue(bookListJson);
+    }
+}
@@ -0,0 +1,76 @@
+package com.shadabshamsi.catalogservice.web;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.shadabshamsi.catalogservice.domain.Book;
+import com.shadabshamsi.catalogservice.domain.BookPage;
+
+/**
+ * A page of books as {@code GET /books} returns it, in each format the controller negotiates. The encoded size
+ * of the page is printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookWireFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectWriter pageWriter;
+    private ObjectReader pageReader;
+    private BookPage page;
+    private byte[] encodedPage;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = switch (format) {
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        pageWriter = objectMapper.writerFor(BookPage.class);
+        pageReader = objectMapper.readerFor(BookPage.class);
+        var now = Instant.now();
+        page = new BookPage(IntStream.range(0, pageSize)
+                .mapToObj(i -> new Book((long) i, String.valueOf(1_000_000_000L + i), "Title " + i, "Author " + i,
+                        10.5, "Polarsophia", now, now, "isabelle", "isabelle", 1))
+                .toList(), "MTAw");
+        encodedPage = pageWriter.writeValueAsBytes(page);
+        System.out.printf("%n%s page of %d books: %d bytes%n", format, pageSize, encodedPage.length);
+    }
+
+    @Benchmark
+    public byte[] encodePage() throws Exception {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public BookPage decodePage() throws Exception {
+        return pageReader.readValue(encodedPage);
+    }
+}
@@ -0,0 +1,141 @@
+package com.shadabshamsi.catalogservice.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shadabshamsi.catalogservice.CatalogServiceApplication;
+
+/**
+ * Boots the catalog in this JVM, with its production configuration, against a throwaway Postgres and a
+ * stand-in token issuer, seeds it, then offers each of the configured request rates for a fixed time and
+ * writes throughput and latency percentiles to a JSON report. Run it with {@code ./gradlew loadTest}; the
+ * {@code loadtest.*} system properties are set from the matching {@code -Pload...} project properties.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        var rates = Arrays.stream(System.getProperty("loadtest.rates", "100,200,400").split(","))
+                .map(String::trim).mapToInt(Integer::parseInt).toArray();
+        var warmup = Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10));
+        var duration = Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 30));
+        var books = Integer.getInteger("loadtest.books", 2000);
+        var mixSpec = System.getProperty("loadtest.mix", TrafficMix.DEFAULT);
+        var reportFile = Path.of(System.getProperty("loadtest.report", "build/reports/load/load-test.json"));
+
+        // An existing database can be given instead, e.g. where Docker is not available
+        var jdbcUrl = System.getProperty("loadtest.jdbcUrl");
+        PostgreSQLContainer<?> postgres = null;
+        if (jdbcUrl == null) {
+            postgres = new PostgreSQLContainer<>("postgres:15.3");
+            postgres.start();
+        }
+        try (var issuer = new StandInIssuer();
+             var context = startCatalog(postgres, jdbcUrl, issuer)) {
+            var port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            var client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            var catalog = new TrafficMix.Catalog("http://127.0.0.1:" + port,
+                    issuer.employeeToken(warmup.plus(duration.multipliedBy(rates.length)).plusHours(1)),
+                    seed(client, "http://127.0.0.1:" + port, issuer, books));
+            var mix = new TrafficMix(mixSpec, catalog);
+            var runner = new OpenLoopRunner(client, mix);
+
+            System.out.printf("Warming up at %d requests/s for %ds%n", rates[0], warmup.toSeconds());
+            runner.run(rates[0], warmup);
+            var steps = new ArrayList<Map<String, Object>>();
+            for (int rate : rates) {
+                var step = runner.run(rate, duration);
+                System.out.printf("%d requests/s offered: %.1f/s served, p50 %.2fms, p99 %.2fms, p99.9 %.2fms%n",
+                        rate, step.throughput(), step.latency().getValueAtPercentile(50) / 1e6,
+                        step.latency().getValueAtPercentile(99) / 1e6,
+                        step.latency().getValueAtPercentile(99.9) / 1e6);
+                steps.add(step.toReport());
+            }
+
+            var environment = context.getEnvironment();
+            var configuration = new LinkedHashMap<String, Object>();
+            configuration.put("rates", rates);
+            configuration.put("warmupSeconds", warmup.toSeconds());
+            configuration.put("durationSeconds", duration.toSeconds());
+            configuration.put("books", books);
+            configuration.put("mix", mix.toString());
+            configuration.put("tomcatMaxThreads", environment.getProperty("server.tomcat.threads.max"));
+            configuration.put("hikariMaximumPoolSize",
+                    environment.getProperty("spring.datasource.hikari.maximum-pool-size"));
+            configuration.put("javaVersion", Runtime.version().toString());
+            configuration.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+            var report = new LinkedHashMap<String, Object>();
+            report.put("startedAt", Instant.now().toString());
+            report.put("configuration", configuration);
+            report.put("steps", steps);
+            Files.createDirectories(reportFile.toAbsolutePath().getParent());
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+            System.out.println("Report written to " + reportFile.toAbsolutePath());
+        } finally {
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startCatalog(PostgreSQLContainer<?> postgres, String jdbcUrl,
+                                                               StandInIssuer issuer) {
+        var url = postgres != null ? postgres.getJdbcUrl() : jdbcUrl;
+        var username = postgres != null ? postgres.getUsername() : System.getProperty("loadtest.username", "user");
+        var password = postgres != null ? postgres.getPassword() : System.getProperty("loadtest.password", "password");
+        // Command line arguments, so they win over application.yml like they would in production
+        return SpringApplication.run(CatalogServiceApplication.class,
+                "--server.port=0",
+                "--spring.cloud.config.enabled=false",
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + username,
+                "--spring.datasource.password=" + password,
+                "--spring.r2dbc.url=" + url.replaceFirst("^jdbc:", "r2dbc:").replaceFirst("\\?.*$", ""),
+                "--spring.r2dbc.username=" + username,
+                "--spring.r2dbc.password=" + password,
+                "--spring.security.oauth2.resourceserver.jwt.issuer-uri=" + issuer.uri(),
+                "--logging.level.root=WARN");
+    }
+
+    /**
+     * Loads {@code books} books through the import endpoint and returns their ISBNs.
+     */
+    private static List<String> seed(HttpClient client, String baseUri, StandInIssuer issuer, int books)
+            throws Exception {
+        var ndjson = IntStream.range(0, books)
+                .mapToObj(n -> TrafficMix.Catalog.bookJson(TrafficMix.Catalog.isbn(n), n))
+                .collect(Collectors.joining("\n"));
+        var request = HttpRequest.newBuilder(URI.create(baseUri + "/books/import"))
+                .header("Authorization", "Bearer " + issuer.employeeToken(Duration.ofMinutes(5)))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson))
+                .build();
+        var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding the catalog failed with " + response.statusCode() + ": "
+                    + response.body());
+        }
+        return IntStream.range(0, books).mapToObj(TrafficMix.Catalog::isbn).toList();
+    }
+}
@@ -0,0 +1,151 @@
+package com.shadabshamsi.catalogservice.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.shadabshamsi.catalogservice.loadtest.TrafficMix.Operation;
+
+/**
+ * Sends requests on a fixed schedule, whether or not earlier ones have come back, each on its own virtual
+ * thread. Latency is measured from the time a request was due rather than the time it went out, so a
+ * stalled service is charged for every request it kept waiting (coordinated omission correction).
+ */
+final class OpenLoopRunner {
+    private final HttpClient client;
+    private final TrafficMix mix;
+
+    OpenLoopRunner(HttpClient client, TrafficMix mix) {
+        this.client = client;
+        this.mix = mix;
+    }
+
+    Step run(int ratePerSecond, Duration duration) {
+        var step = new Step(ratePerSecond, duration);
+        double intervalNanos = 1_000_000_000.0 / ratePerSecond;
+        long requests = Math.round(duration.toNanos() / intervalNanos);
+        long start = System.nanoTime();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long due = start + Math.round(i * intervalNanos);
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                var operation = mix.next();
+                executor.execute(() -> send(operation, due, step));
+            }
+        }
+        step.elapsedNanos = System.nanoTime() - start;
+        return step;
+    }
+
+    private void send(Operation operation, long due, Step step) {
+        var request = mix.request(operation);
+        long sent = System.nanoTime();
+        String status;
+        try {
+            status = String.valueOf(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+        } catch (IOException ex) {
+            status = ex.getClass().getSimpleName();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long done = System.nanoTime();
+        step.record(operation, status, done - due, done - sent);
+    }
+
+    static final class Step {
+        private final int rate;
+        private final Duration duration;
+        private final Histogram latency = new ConcurrentHistogram(3);
+        private final Histogram uncorrectedLatency = new ConcurrentHistogram(3);
+        private final Map<Operation, Histogram> operationLatency = new EnumMap<>(Operation.class);
+        private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAdder successes = new LongAdder();
+        private long elapsedNanos;
+
+        private Step(int rate, Duration duration) {
+            this.rate = rate;
+            this.duration = duration;
+            for (Operation operation : Operation.values()) {
+                operationLatency.put(operation, new ConcurrentHistogram(3));
+            }
+        }
+
+        private void record(Operation operation, String status, long latencyNanos, long uncorrectedNanos) {
+            latency.recordValue(latencyNanos);
+            uncorrectedLatency.recordValue(uncorrectedNanos);
+            operationLatency.get(operation).recordValue(latencyNanos);
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+            if (status.startsWith("2") || status.equals("304")) {
+                successes.increment();
+            }
+        }
+
+        int rate() {
+            return rate;
+        }
+
+        double throughput() {
+            return successes.sum() / (elapsedNanos / 1e9);
+        }
+
+        Histogram latency() {
+            return latency;
+        }
+
+        Map<String, Object> toReport() {
+            var report = new LinkedHashMap<String, Object>();
+            report.put("targetRate", rate);
+            report.put("durationSeconds", duration.toSeconds());
+            report.put("requests", latency.getTotalCount());
+            report.put("successfulRequests", successes.sum());
+            report.put("throughput", Math.round(throughput() * 10) / 10.0);
+            var statusCounts = new TreeMap<String, Long>();
+            statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+            report.put("statuses", statusCounts);
+            report.put("latencyMillis", percentiles(latency));
+            report.put("uncorrectedLatencyMillis", percentiles(uncorrectedLatency));
+            var operations = new LinkedHashMap<String, Object>();
+            operationLatency.forEach((operation, histogram) -> {
+                if (histogram.getTotalCount() > 0) {
+                    var summary = new LinkedHashMap<String, Object>();
+                    summary.put("requests", histogram.getTotalCount());
+                    summary.putAll(percentiles(histogram));
+                    operations.put(operation.name().toLowerCase(Locale.ROOT), summary);
+                }
+            });
+            report.put("operations", operations);
+            return report;
+        }
+
+        private static Map<String, Object> percentiles(Histogram histogram) {
+            var percentiles = new LinkedHashMap<String, Object>();
+            percentiles.put("p50", millis(histogram.getValueAtPercentile(50)));
+            percentiles.put("p99", millis(histogram.getValueAtPercentile(99)));
+            percentiles.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+            percentiles.put("max", millis(histogram.getMaxValue()));
+            percentiles.put("mean", millis(Math.round(histogram.getMean())));
+            return percentiles;
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 1_000.0) / 1_000.0;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.shadabshamsi.catalogservice.loadtest;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Just enough of an OpenID provider for the catalog to validate tokens: discovery, a JWK set and tokens
+ * signed with its key. Stands in for Keycloak, which would compete with the service for CPU.
+ */
+final class StandInIssuer implements AutoCloseable {
+    private final RSAKey key;
+    private final HttpServer server;
+
+    StandInIssuer() throws IOException, JOSEException {
+        this.key = new RSAKeyGenerator(2048).keyID("load-test").generate();
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        var configuration = "{\"issuer\":\"" + uri() + "\",\"jwks_uri\":\"" + uri() + "/jwks\"}";
+        var jwks = new JWKSet(key.toPublicJWK()).toString();
+        server.createContext("/.well-known/openid-configuration", exchange -> respond(exchange, configuration));
+        server.createContext("/jwks", exchange -> respond(exchange, jwks));
+        server.start();
+    }
+
+    String uri() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * A token carrying the employee role, which every catalog endpoint accepts.
+     */
+    String employeeToken(Duration validity) throws JOSEException {
+        var now = Instant.now();
+        var claims = new JWTClaimsSet.Builder()
+                .issuer(uri())
+                .subject("load-test")
+                .claim("roles", List.of("employee"))
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(validity)))
+                .build();
+        var jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        var body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
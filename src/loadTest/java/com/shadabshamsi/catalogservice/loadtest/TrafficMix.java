@@ -0,0 +1,143 @@
+package com.shadabshamsi.catalogservice.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Weighted choice of the requests a storefront makes, e.g. {@code book=60,page=10,update=5}. Reads go
+ * out anonymously like they do from the storefront, writes carry the employee token.
+ */
+final class TrafficMix {
+    static final String DEFAULT = "book=55,first=10,page=10,search=5,lookup=5,filter=5,update=5,create=5";
+
+    enum Operation { BOOK, FIRST, PAGE, SEARCH, LOOKUP, FILTER, UPDATE, CREATE }
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] table;
+    private final Catalog catalog;
+    private final AtomicLong createdIsbns = new AtomicLong();
+
+    TrafficMix(String mix, Catalog catalog) {
+        this.weights = parse(mix);
+        var entries = new ArrayList<Operation>();
+        weights.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                entries.add(operation);
+            }
+        });
+        this.table = entries.toArray(Operation[]::new);
+        this.catalog = catalog;
+    }
+
+    Map<Operation, Integer> weights() {
+        return weights;
+    }
+
+    Operation next() {
+        return table[ThreadLocalRandom.current().nextInt(table.length)];
+    }
+
+    HttpRequest request(Operation operation) {
+        var random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case BOOK -> get("/books/" + catalog.randomIsbn());
+            case FIRST -> get("/books");
+            case PAGE -> get("/books?limit=20&after=" + random.nextInt(catalog.size()));
+            case SEARCH -> get("/books/search?q=" + Catalog.randomWord());
+            case LOOKUP -> get("/books?isbn=" + String.join(",", catalog.randomIsbns(20)));
+            case FILTER -> get("/books?sort=price&maxPrice=" + random.nextInt(10, 50) + "&author="
+                    + Catalog.randomAuthor().replace(" ", "%20"));
+            case UPDATE -> {
+                var isbn = catalog.randomIsbn();
+                yield write(isbn, Catalog.bookJson(isbn, random.nextInt(catalog.size())), "PUT");
+            }
+            case CREATE -> {
+                var isbn = String.format("8%012d", createdIsbns.incrementAndGet());
+                yield write("", Catalog.bookJson(isbn, random.nextInt(catalog.size())), "POST");
+            }
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(catalog.baseUri() + path)).GET().build();
+    }
+
+    private HttpRequest write(String isbn, String json, String method) {
+        return HttpRequest.newBuilder(URI.create(catalog.baseUri() + "/books" + (isbn.isEmpty() ? "" : "/" + isbn)))
+                .header("Authorization", "Bearer " + catalog.token())
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static Map<Operation, Integer> parse(String mix) {
+        var weights = new LinkedHashMap<Operation, Integer>();
+        for (String entry : mix.split(",")) {
+            var parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight in the mix, got " + entry);
+            }
+            var weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix " + mix + " has no operation with a positive weight");
+        }
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        return weights.entrySet().stream()
+                .map(entry -> entry.getKey().name().toLowerCase(Locale.ROOT) + "=" + entry.getValue())
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * The books seeded before the run, and what it takes to reach the service.
+     */
+    record Catalog(String baseUri, String token, List<String> isbns) {
+        private static final String[] WORDS = {"polar", "bear", "ice", "north", "star", "night", "sea", "wind"};
+        private static final int AUTHORS = 200;
+
+        int size() {
+            return isbns.size();
+        }
+
+        String randomIsbn() {
+            return isbns.get(ThreadLocalRandom.current().nextInt(isbns.size()));
+        }
+
+        List<String> randomIsbns(int count) {
+            return ThreadLocalRandom.current().ints(count, 0, isbns.size()).mapToObj(isbns::get).toList();
+        }
+
+        static String isbn(int n) {
+            return String.format("9%012d", n);
+        }
+
+        static String randomWord() {
+            return WORDS[ThreadLocalRandom.current().nextInt(WORDS.length)];
+        }
+
+        static String randomAuthor() {
+            return "Author " + ThreadLocalRandom.current().nextInt(AUTHORS);
+        }
+
+        static String bookJson(String isbn, int n) {
+            return "{\"isbn\":\"" + isbn + "\",\"title\":\"The " + WORDS[n % WORDS.length] + " " + n
+                    + "\",\"author\":\"Author " + (n % AUTHORS) + "\",\"price\":" + (5 + n % 4500 / 100.0)
+                    + ",\"publisher\":\"Publisher " + (n % 50) + "\"}";
+        }
+    }
+}
@@ -4,9 +4,15 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.shadabshamsi.catalogservice.config.CatalogRuntimeHints;
 
 @SpringBootApplication
 @ConfigurationPropertiesScan
+@EnableScheduling
+@ImportRuntimeHints(CatalogRuntimeHints.class)
 //@EnableConfigurationProperties
 public class CatalogServiceApplication {
 
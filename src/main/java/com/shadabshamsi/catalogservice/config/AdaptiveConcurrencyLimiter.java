@@ -0,0 +1,92 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * AIMD concurrency limit: each call that completes under the latency threshold while the limit is in use
+ * raises it by one, each slow or failed call multiplies it by the backoff ratio. Calls of the kind that is
+ * not prioritised are only admitted below {@code 1 - reservedShare} of the limit, leaving the rest for
+ * the other kind.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final String REJECTED_METRIC = "catalog.admission.rejected";
+
+    public enum Operation { READ, WRITE }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final double reservedShare;
+    private final Operation prioritised;
+    private final Map<Operation, Counter> rejections = new EnumMap<>(Operation.class);
+
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.minLimit = Math.max(1, properties.getMinLimit());
+        this.maxLimit = Math.max(minLimit, properties.getMaxLimit());
+        this.latencyThresholdNanos = properties.getLatencyThreshold().toNanos();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.reservedShare = properties.getReservedShare();
+        this.prioritised = properties.getPriority() == AdmissionProperties.Priority.READS
+                ? Operation.READ : Operation.WRITE;
+        this.limit = Math.min(maxLimit, Math.max(minLimit, properties.getInitialLimit()));
+
+        Gauge.builder("catalog.admission.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Concurrent repository calls currently admitted")
+                .register(meterRegistry);
+        Gauge.builder("catalog.admission.in.flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Repository calls currently running")
+                .register(meterRegistry);
+        for (Operation operation : Operation.values()) {
+            rejections.put(operation, Counter.builder(REJECTED_METRIC)
+                    .description("Repository calls rejected because the concurrency limit was reached")
+                    .tag("operation", operation.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Takes a slot for a call, or returns false if the call should be shed. Every successful acquire must
+     * be followed by a {@link #release}.
+     */
+    public synchronized boolean tryAcquire(Operation operation) {
+        double allowed = operation == prioritised ? limit : limit * (1 - reservedShare);
+        if (inFlight >= Math.max(1, (int) allowed)) {
+            rejections.get(operation).increment();
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Frees the slot and adjusts the limit. {@code dropped} marks calls that failed for lack of capacity,
+     * such as connection or query timeouts.
+     */
+    public synchronized void release(long latencyNanos, boolean dropped) {
+        int concurrency = inFlight--;
+        if (dropped || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (concurrency * 2 >= limit) {
+            // Only grow while the limit is actually being used, otherwise an idle service ends up at the maximum
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
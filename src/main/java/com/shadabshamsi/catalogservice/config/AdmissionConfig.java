@@ -0,0 +1,24 @@
+package com.shadabshamsi.catalogservice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@ConditionalOnProperty(prefix = "polar.admission", name = "enabled", matchIfMissing = true)
+public class AdmissionConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(AdmissionProperties properties,
+                                                                 MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+    }
+
+    @Bean
+    public AdmissionControlAspect admissionControlAspect(AdaptiveConcurrencyLimiter limiter,
+                                                         AdmissionProperties properties) {
+        return new AdmissionControlAspect(limiter, properties.getRetryAfter());
+    }
+}
@@ -0,0 +1,50 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.time.Duration;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+
+import com.shadabshamsi.catalogservice.config.AdaptiveConcurrencyLimiter.Operation;
+
+/**
+ * Admits calls to {@link com.shadabshamsi.catalogservice.domain.BookRepository} through the limiter.
+ * It wraps the repository rather than BookService, so cache hits and lookups collapsed into another
+ * request's query never take a slot, and it runs before the repository's transaction takes a connection.
+ */
+@Aspect
+public class AdmissionControlAspect {
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Duration retryAfter;
+
+    public AdmissionControlAspect(AdaptiveConcurrencyLimiter limiter, Duration retryAfter) {
+        this.limiter = limiter;
+        this.retryAfter = retryAfter;
+    }
+
+    @Around("execution(* com.shadabshamsi.catalogservice.domain.BookRepository+.*(..))")
+    public Object admit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!limiter.tryAcquire(operationOf(joinPoint.getSignature().getName()))) {
+            throw new AdmissionRejectedException(retryAfter);
+        }
+        long start = System.nanoTime();
+        boolean dropped = false;
+        try {
+            return joinPoint.proceed();
+        } catch (TransientDataAccessException | DataAccessResourceFailureException ex) {
+            dropped = true;
+            throw ex;
+        } finally {
+            limiter.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    static Operation operationOf(String methodName) {
+        return methodName.startsWith("find") || methodName.startsWith("exists")
+                || methodName.startsWith("count") || methodName.startsWith("search")
+                ? Operation.READ : Operation.WRITE;
+    }
+}
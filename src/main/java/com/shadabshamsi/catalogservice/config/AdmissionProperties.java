@@ -0,0 +1,133 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Adaptive limit on concurrent database work. The limit grows by one while calls stay under the latency
+ * threshold and shrinks by the backoff ratio when they do not, so overload is shed up front with a 503
+ * instead of piling up behind the connection timeout.
+ */
+@ConfigurationProperties(prefix = "polar.admission")
+public class AdmissionProperties {
+
+    public enum Priority { READS, WRITES }
+
+    /**
+     * Whether repository calls are admitted through the adaptive limiter
+     */
+    private boolean enabled = true;
+
+    /**
+     * Concurrent calls admitted before any latency has been observed
+     */
+    private int initialLimit = 10;
+
+    /**
+     * Floor the limit never shrinks below
+     */
+    private int minLimit = 2;
+
+    /**
+     * Ceiling the limit never grows beyond
+     */
+    private int maxLimit = 50;
+
+    /**
+     * Call latency above which the limit is treated as too high
+     */
+    private Duration latencyThreshold = Duration.ofMillis(500);
+
+    /**
+     * Factor the limit is multiplied by on a slow or failed call
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * Which kind of call keeps being admitted when the limit is nearly reached
+     */
+    private Priority priority = Priority.READS;
+
+    /**
+     * Share of the limit only the prioritised kind of call may use
+     */
+    private double reservedShare = 0.2;
+
+    /**
+     * Value of the Retry-After header on rejected requests
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public Duration getLatencyThreshold() {
+        return latencyThreshold;
+    }
+
+    public void setLatencyThreshold(Duration latencyThreshold) {
+        this.latencyThreshold = latencyThreshold;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+    }
+
+    public double getReservedShare() {
+        return reservedShare;
+    }
+
+    public void setReservedShare(double reservedShare) {
+        this.reservedShare = reservedShare;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
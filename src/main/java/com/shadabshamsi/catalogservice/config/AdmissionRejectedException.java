@@ -0,0 +1,16 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.time.Duration;
+
+public class AdmissionRejectedException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(Duration retryAfter) {
+        super("The catalog is overloaded, please retry later.");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
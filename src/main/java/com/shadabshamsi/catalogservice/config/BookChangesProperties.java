@@ -0,0 +1,74 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "polar.book-changes")
+public class BookChangesProperties {
+
+    /**
+     * Whether to LISTEN for book change notifications from Postgres
+     */
+    private boolean listenEnabled = true;
+
+    /**
+     * How long a single wait for notifications blocks
+     */
+    private Duration pollTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Delay before reconnecting after the listening connection is lost
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+
+    /**
+     * How long change feed entries are kept, consumers further behind have to re-sync from GET /books
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * How often expired change feed entries are deleted
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    public boolean isListenEnabled() {
+        return listenEnabled;
+    }
+
+    public void setListenEnabled(boolean listenEnabled) {
+        this.listenEnabled = listenEnabled;
+    }
+
+    public Duration getPollTimeout() {
+        return pollTimeout;
+    }
+
+    public void setPollTimeout(Duration pollTimeout) {
+        this.pollTimeout = pollTimeout;
+    }
+
+    public Duration getReconnectDelay() {
+        return reconnectDelay;
+    }
+
+    public void setReconnectDelay(Duration reconnectDelay) {
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+}
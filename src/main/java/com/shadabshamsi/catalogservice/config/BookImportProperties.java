@@ -0,0 +1,33 @@
+package com.shadabshamsi.catalogservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "polar.import")
+public class BookImportProperties {
+
+    /**
+     * Maximum number of rejected lines reported back in an import response
+     */
+    private int maxReportedErrors = 1000;
+
+    /**
+     * Bytes buffered before they are flushed to the COPY stream
+     */
+    private int copyBufferSize = 64 * 1024;
+
+    public int getMaxReportedErrors() {
+        return maxReportedErrors;
+    }
+
+    public void setMaxReportedErrors(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public int getCopyBufferSize() {
+        return copyBufferSize;
+    }
+
+    public void setCopyBufferSize(int copyBufferSize) {
+        this.copyBufferSize = copyBufferSize;
+    }
+}
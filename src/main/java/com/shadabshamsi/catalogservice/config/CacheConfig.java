@@ -0,0 +1,38 @@
+package com.shadabshamsi.catalogservice.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import com.shadabshamsi.catalogservice.domain.BookChangeListener;
+import com.shadabshamsi.catalogservice.domain.BookService;
+import com.shadabshamsi.catalogservice.domain.CatalogVersion;
+import com.shadabshamsi.catalogservice.domain.IsbnFilter;
+
+@Configuration
+// Cache lookups wrap the transaction, so a hit never begins one.
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "polar.book-changes", name = "listen-enabled", matchIfMissing = true)
+    BookChangeListener bookChangeListener(DataSourceProperties dataSourceProperties,
+                                          CacheManager cacheManager,
+                                          IsbnFilter isbnFilter,
+                                          CatalogVersion catalogVersion,
+                                          BookChangesProperties bookChangesProperties) {
+        // LISTEN needs a connection of its own for as long as the app runs, so keep it out of the Hikari pool.
+        DataSource listenerDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(SimpleDriverDataSource.class)
+                .build();
+        return new BookChangeListener(listenerDataSource, cacheManager.getCache(BookService.BOOKS_CACHE),
+                isbnFilter, catalogVersion, bookChangesProperties);
+    }
+}
@@ -0,0 +1,117 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Remembers the validated JWT and authorities for a bearer token, so a client reusing the same token skips
+ * signature verification and claim conversion. An entry never outlives the token's exp claim.
+ * Tokens are keyed by their SHA-256 hash, never stored as-is.
+ * <p>
+ * Every hit gets its own {@link JwtAuthenticationToken}: the authentication manager fills in request
+ * details on the returned instance, so sharing one would leak the first request's details to the rest.
+ */
+public class CachingJwtAuthenticationProvider implements AuthenticationProvider {
+    private final AuthenticationProvider delegate;
+    private final Cache<String, CachedJwt> authentications;
+
+    public CachingJwtAuthenticationProvider(AuthenticationProvider delegate, long maximumSize, Duration maxTtl) {
+        this.delegate = delegate;
+        this.authentications = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, CachedJwt>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedJwt authentication,
+                                                  long currentTime) {
+                        return timeToLive(authentication.jwt(), maxTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedJwt authentication,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, authentication, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedJwt authentication,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) {
+        var bearerToken = (BearerTokenAuthenticationToken) authentication;
+        var key = sha256(bearerToken.getToken());
+        var cached = authentications.getIfPresent(key);
+        if (cached != null) {
+            return new JwtAuthenticationToken(cached.jwt(), cached.authorities(), cached.name());
+        }
+        var authenticated = delegate.authenticate(authentication);
+        if (authenticated instanceof JwtAuthenticationToken jwtAuthentication && isCacheable(jwtAuthentication)) {
+            authentications.put(key, new CachedJwt(jwtAuthentication.getToken(),
+                    jwtAuthentication.getAuthorities(), jwtAuthentication.getName()));
+        }
+        return authenticated;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return BearerTokenAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    public void invalidateAll() {
+        authentications.invalidateAll();
+    }
+
+    Cache<String, CachedJwt> cache() {
+        return authentications;
+    }
+
+    private static boolean isCacheable(JwtAuthenticationToken authentication) {
+        var now = Instant.now();
+        var token = authentication.getToken();
+        if (token.getExpiresAt() == null || !token.getExpiresAt().isAfter(now)) {
+            return false;
+        }
+        // Accepted thanks to the clock skew allowance: validate it again once it is really active.
+        var notBefore = authentication.getTokenAttributes().get("nbf");
+        return !(notBefore instanceof Instant instant && instant.isAfter(now));
+    }
+
+    private static Duration timeToLive(Jwt jwt, Duration maxTtl) {
+        var untilExpiry = Duration.between(Instant.now(), jwt.getExpiresAt());
+        return untilExpiry.compareTo(maxTtl) < 0 ? untilExpiry : maxTtl;
+    }
+
+    private static String sha256(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    record CachedJwt(Jwt jwt, Collection<GrantedAuthority> authorities, String name) {
+    }
+}
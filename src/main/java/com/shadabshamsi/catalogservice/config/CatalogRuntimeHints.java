@@ -0,0 +1,45 @@
+package com.shadabshamsi.catalogservice.config;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.boot.context.properties.bind.BindableRuntimeHintsRegistrar;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.interceptor.TransactionalProxy;
+
+import com.shadabshamsi.catalogservice.domain.Book;
+import com.shadabshamsi.catalogservice.domain.BookChangePage;
+import com.shadabshamsi.catalogservice.domain.BookImportResult;
+import com.shadabshamsi.catalogservice.domain.BookLookup;
+import com.shadabshamsi.catalogservice.domain.BookPage;
+import com.shadabshamsi.catalogservice.domain.BookProjection;
+import com.shadabshamsi.catalogservice.domain.BookProjectionPage;
+import com.shadabshamsi.catalogservice.domain.BookRepository;
+
+/**
+ * Hints for the native image build. Spring's own AOT processing covers most beans; these are the types
+ * that are reflected on or proxied at runtime whatever it infers from the bean definitions.
+ */
+public class CatalogRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Request and response bodies, import lines and change feed pages, all (de)serialized by Jackson
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                Book.class, BookPage.class, BookLookup.class, BookProjection.class, BookProjectionPage.class,
+                BookChangePage.class, BookImportResult.class);
+        // Spring Data JDBC instantiates the record through its canonical constructor and reads its accessors
+        hints.reflection().registerType(Book.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+        // The repository proxy, which also dispatches to the upsert fragment
+        hints.proxies().registerJdkProxy(BookRepository.class, Repository.class, TransactionalProxy.class,
+                Advised.class, DecoratingProxy.class);
+        BindableRuntimeHintsRegistrar.forTypes(PolarProperties.class, PaginationProperties.class,
+                BookChangesProperties.class, IsbnFilterProperties.class, BookImportProperties.class,
+                ReplicaDataSourceProperties.class, JwtProperties.class, AdmissionProperties.class,
+                ServerTimingProperties.class, WarmUpProperties.class).registerHints(hints, classLoader);
+    }
+}
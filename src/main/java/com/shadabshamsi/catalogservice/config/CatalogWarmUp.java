@@ -0,0 +1,144 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shadabshamsi.catalogservice.domain.Book;
+import com.shadabshamsi.catalogservice.domain.BookField;
+import com.shadabshamsi.catalogservice.domain.BookFilter;
+import com.shadabshamsi.catalogservice.domain.BookNotFoundException;
+import com.shadabshamsi.catalogservice.domain.BookService;
+import com.shadabshamsi.catalogservice.domain.BookSort;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Gets a new instance ready for traffic: fills the connection pools, makes sure the issuer's signing keys
+ * are there, loads the hot books into the cache and runs the read paths and the book serializers until the
+ * JIT has seen them. Spring Boot only switches readiness to ACCEPTING_TRAFFIC once every
+ * ApplicationReadyEvent listener has returned, so the readiness probe stays down until this is done.
+ * A step that fails is logged and skipped; a slower first request is better than an instance that never
+ * becomes ready.
+ */
+public class CatalogWarmUp {
+    private static final Logger log = LoggerFactory.getLogger(CatalogWarmUp.class);
+
+    private final WarmUpProperties properties;
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+    private final RefreshingJwkSource jwkSource;
+    private final List<DataSource> dataSources;
+    private final Timer timer;
+
+    public CatalogWarmUp(WarmUpProperties properties, BookService bookService, ObjectMapper objectMapper,
+                         RefreshingJwkSource jwkSource, List<DataSource> dataSources, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.bookService = bookService;
+        this.objectMapper = objectMapper;
+        this.jwkSource = jwkSource;
+        this.dataSources = dataSources;
+        this.timer = Timer.builder("catalog.warmup")
+                .description("Time spent warming up before reporting ready")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.nanoTime();
+        step("connection pools", this::fillConnectionPools);
+        step("signing keys", this::fetchSigningKeys);
+        step("hot books", this::loadHotBooks);
+        step("read paths", this::exerciseReadPaths);
+        long elapsed = System.nanoTime() - start;
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Warmed up in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    private void step(String name, Step step) {
+        try {
+            step.run();
+        } catch (Exception ex) {
+            log.warn("Warm-up of the {} failed, continuing without it", name, ex);
+        }
+    }
+
+    void fillConnectionPools() throws SQLException {
+        // The routing and lazy data sources unwrap to the same pools, so they are told apart by name.
+        var pools = new LinkedHashMap<String, HikariDataSource>();
+        for (DataSource dataSource : dataSources) {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                var pool = dataSource.unwrap(HikariDataSource.class);
+                pools.putIfAbsent(pool.getPoolName(), pool);
+            }
+        }
+        for (HikariDataSource pool : pools.values()) {
+            // Holding minimumIdle connections at once makes the pool open all of them now.
+            var connections = new ArrayList<Connection>();
+            try {
+                for (int i = 0; i < Math.max(1, pool.getMinimumIdle()); i++) {
+                    connections.add(pool.getConnection());
+                }
+            } finally {
+                for (Connection connection : connections) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    void fetchSigningKeys() {
+        if (!jwkSource.hasKeys()) {
+            jwkSource.refresh();
+        }
+    }
+
+    void loadHotBooks() {
+        for (String isbn : properties.getHotIsbns()) {
+            try {
+                bookService.viewBookDetails(isbn);
+            } catch (BookNotFoundException ex) {
+                log.debug("Hot book {} is not in the catalog", isbn);
+            }
+        }
+    }
+
+    void exerciseReadPaths() throws Exception {
+        var fields = EnumSet.of(BookField.ISBN, BookField.TITLE, BookField.PRICE);
+        for (int i = 0; i < properties.getIterations(); i++) {
+            var page = bookService.viewBookPage(null, null, null);
+            objectMapper.writeValueAsBytes(page);
+            objectMapper.writeValueAsBytes(bookService.viewBookPage(null, null, null, fields));
+            objectMapper.writeValueAsBytes(bookService.viewBookPage(null, null, null, BookFilter.NONE, BookSort.PRICE));
+            if (page.books().isEmpty()) {
+                continue;
+            }
+            var book = page.books().get(0);
+            var json = objectMapper.writeValueAsBytes(bookService.viewBookDetails(book.isbn()));
+            objectMapper.readValue(json, Book.class);
+            objectMapper.writeValueAsBytes(bookService.viewBookDetails(book.isbn(), fields));
+            bookService.viewBookVersion(book.isbn());
+            objectMapper.writeValueAsBytes(bookService.viewBooks(page.books().stream().map(Book::isbn).toList()));
+            objectMapper.writeValueAsBytes(bookService.searchBooks(book.title(), null, null));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws Exception;
+    }
+}
@@ -1,18 +1,44 @@
 package com.shadabshamsi.catalogservice.config;
 
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.jdbc.core.dialect.JdbcPostgresDialect;
 import org.springframework.data.jdbc.repository.config.EnableJdbcAuditing;
+import org.springframework.data.jdbc.repository.config.EnableJdbcRepositories;
+import org.springframework.data.relational.core.dialect.Dialect;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import com.shadabshamsi.catalogservice.domain.BookRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
 import java.util.Optional;
 
 @Configuration
 @EnableJdbcAuditing
+// JDBC and R2DBC repositories live in separate packages so neither store claims the other's interfaces.
+@EnableJdbcRepositories(basePackageClasses = BookRepository.class)
+@EnableConfigurationProperties(DataSourceProperties.class)
 public class DataConfig {
+    /**
+     * Spring Boot stops creating the JDBC pool as soon as R2DBC contributes a connection factory, but the
+     * repositories, Flyway and the change listener all still run on JDBC.
+     */
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        var dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
     @Bean
     AuditorAware<String> auditorAware() {
         return () -> Optional.ofNullable(SecurityContextHolder.getContext())
@@ -20,4 +46,12 @@ public class DataConfig {
                 .filter(Authentication::isAuthenticated)
                 .map(Authentication::getName);
     }
+
+    /**
+     * The schema is PostgreSQL-only, so the dialect is not detected from a connection opened at startup.
+     */
+    @Bean
+    Dialect jdbcDialect() {
+        return JdbcPostgresDialect.INSTANCE;
+    }
 }
@@ -0,0 +1,62 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "polar.isbn-filter")
+public class IsbnFilterProperties {
+
+    /**
+     * Whether unknown ISBNs are rejected from memory before querying the database. Only takes effect while
+     * book change notifications are being received, see polar.book-changes.listen-enabled
+     */
+    private boolean enabled = true;
+
+    /**
+     * Minimum number of ISBNs the filter is sized for
+     */
+    private long expectedInsertions = 1_000_000;
+
+    /**
+     * Acceptable rate of unknown ISBNs that still reach the database
+     */
+    private double falsePositiveProbability = 0.01;
+
+    /**
+     * How often the filter is rebuilt from the book table, dropping deleted ISBNs
+     */
+    private Duration rebuildInterval = Duration.ofHours(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public void setExpectedInsertions(long expectedInsertions) {
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    public double getFalsePositiveProbability() {
+        return falsePositiveProbability;
+    }
+
+    public void setFalsePositiveProbability(double falsePositiveProbability) {
+        this.falsePositiveProbability = falsePositiveProbability;
+    }
+
+    public Duration getRebuildInterval() {
+        return rebuildInterval;
+    }
+
+    public void setRebuildInterval(Duration rebuildInterval) {
+        this.rebuildInterval = rebuildInterval;
+    }
+}
@@ -0,0 +1,61 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "polar.jwt")
+public class JwtProperties {
+
+    /**
+     * Maximum number of validated bearer tokens kept in memory
+     */
+    private long cacheMaximumSize = 10_000;
+
+    /**
+     * Longest time a validated token is reused without verifying it again, however late it expires
+     */
+    private Duration cacheMaxTtl = Duration.ofMinutes(10);
+
+    /**
+     * How often the issuer's signing keys are fetched again
+     */
+    private Duration jwkRefreshInterval = Duration.ofMinutes(5);
+
+    /**
+     * Minimum time between two fetches triggered by a token signed with an unknown key
+     */
+    private Duration jwkMinRefetchInterval = Duration.ofSeconds(30);
+
+    public long getCacheMaximumSize() {
+        return cacheMaximumSize;
+    }
+
+    public void setCacheMaximumSize(long cacheMaximumSize) {
+        this.cacheMaximumSize = cacheMaximumSize;
+    }
+
+    public Duration getCacheMaxTtl() {
+        return cacheMaxTtl;
+    }
+
+    public void setCacheMaxTtl(Duration cacheMaxTtl) {
+        this.cacheMaxTtl = cacheMaxTtl;
+    }
+
+    public Duration getJwkRefreshInterval() {
+        return jwkRefreshInterval;
+    }
+
+    public void setJwkRefreshInterval(Duration jwkRefreshInterval) {
+        this.jwkRefreshInterval = jwkRefreshInterval;
+    }
+
+    public Duration getJwkMinRefetchInterval() {
+        return jwkMinRefetchInterval;
+    }
+
+    public void setJwkMinRefetchInterval(Duration jwkMinRefetchInterval) {
+        this.jwkMinRefetchInterval = jwkMinRefetchInterval;
+    }
+}
@@ -0,0 +1,59 @@
+package com.shadabshamsi.catalogservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "polar.pagination")
+public class PaginationProperties {
+
+    /**
+     * Number of books returned when the client does not ask for a page size
+     */
+    private int defaultSize = 20;
+
+    /**
+     * Upper bound on the page size a client can ask for
+     */
+    private int maxSize = 100;
+
+    /**
+     * How deep a ranked search can be paged, in number of results
+     */
+    private int maxSearchResults = 1000;
+
+    /**
+     * Upper bound on the number of ISBNs resolved by one batch lookup
+     */
+    private int maxLookupSize = 100;
+
+    public int getDefaultSize() {
+        return defaultSize;
+    }
+
+    public void setDefaultSize(int defaultSize) {
+        this.defaultSize = defaultSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxSearchResults() {
+        return maxSearchResults;
+    }
+
+    public void setMaxSearchResults(int maxSearchResults) {
+        this.maxSearchResults = maxSearchResults;
+    }
+
+    public int getMaxLookupSize() {
+        return maxLookupSize;
+    }
+
+    public void setMaxLookupSize(int maxLookupSize) {
+        this.maxLookupSize = maxLookupSize;
+    }
+}
@@ -0,0 +1,13 @@
+package com.shadabshamsi.catalogservice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+
+import com.shadabshamsi.catalogservice.reactive.ReactiveBookRepository;
+
+@Configuration
+@ConditionalOnProperty(prefix = "polar.reactive", name = "enabled", matchIfMissing = true)
+@EnableR2dbcRepositories(basePackageClasses = ReactiveBookRepository.class)
+public class ReactiveDataConfig {
+}
@@ -0,0 +1,110 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+
+/**
+ * Issuer signing keys, fetched when the application starts and refreshed in the background rather than
+ * on a request. A token signed with a key we do not know yet triggers a fetch, at most once per
+ * {@code minRefetchInterval}. Listeners hear about keys that disappear from the set, as tokens they
+ * signed must no longer be trusted.
+ */
+public class RefreshingJwkSource implements JWKSource<SecurityContext> {
+    private static final Logger log = LoggerFactory.getLogger(RefreshingJwkSource.class);
+
+    private final Supplier<JWKSet> jwkSetFetcher;
+    private final long minRefetchIntervalNanos;
+    private final List<Runnable> keyRemovalListeners = new CopyOnWriteArrayList<>();
+    private volatile JWKSet jwkSet;
+    private volatile long lastFetchAttempt;
+    private volatile boolean fetchAttempted;
+
+    public RefreshingJwkSource(Supplier<JWKSet> jwkSetFetcher, Duration minRefetchInterval) {
+        this.jwkSetFetcher = jwkSetFetcher;
+        this.minRefetchIntervalNanos = minRefetchInterval.toNanos();
+    }
+
+    public void addKeyRemovalListener(Runnable listener) {
+        keyRemovalListeners.add(listener);
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+        var current = jwkSet;
+        if (current != null) {
+            var keys = jwkSelector.select(current);
+            if (!keys.isEmpty()) {
+                return keys;
+            }
+        }
+        if (fetchAttempted && System.nanoTime() - lastFetchAttempt < minRefetchIntervalNanos) {
+            return List.of();
+        }
+        if (!refresh() && jwkSet == null) {
+            throw new KeySourceException("Signing keys of the issuer are not available");
+        }
+        return jwkSelector.select(jwkSet);
+    }
+
+    // Not @PostConstruct: a run that stops once the context is refreshed, like the class data sharing training
+    // run, never publishes this event and so never calls the issuer.
+    @EventListener(ContextRefreshedEvent.class)
+    void fetchEagerly() {
+        // A failure here is not fatal: the keys are fetched again on the first token or the next refresh.
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${polar.jwt.jwk-refresh-interval:PT5M}",
+            initialDelayString = "${polar.jwt.jwk-refresh-interval:PT5M}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    public boolean hasKeys() {
+        return jwkSet != null;
+    }
+
+    /**
+     * Fetches the key set again, returning false if that failed and the previous keys are still in use.
+     */
+    public synchronized boolean refresh() {
+        lastFetchAttempt = System.nanoTime();
+        fetchAttempted = true;
+        JWKSet fetched;
+        try {
+            fetched = jwkSetFetcher.get();
+        } catch (RuntimeException ex) {
+            log.warn("Could not fetch the signing keys of the issuer: {}", ex.toString());
+            return false;
+        }
+        var previous = jwkSet;
+        jwkSet = fetched;
+        if (previous != null && !keyIds(fetched).containsAll(keyIds(previous))) {
+            log.info("Issuer signing keys were rotated, dropping tokens validated with the old keys");
+            keyRemovalListeners.forEach(Runnable::run);
+        }
+        return true;
+    }
+
+    private static Set<String> keyIds(JWKSet jwkSet) {
+        return jwkSet.getKeys().stream().map(JWK::getKeyID).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+}
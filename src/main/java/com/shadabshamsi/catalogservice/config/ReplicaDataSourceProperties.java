@@ -0,0 +1,91 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Read replica used for read-only transactions. Its pool is tuned under polar.datasource.replica.hikari,
+ * the same way spring.datasource.hikari tunes the primary.
+ */
+@ConfigurationProperties(prefix = "polar.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    /**
+     * Whether read-only transactions are routed to the replica
+     */
+    private boolean enabled = false;
+
+    /**
+     * JDBC URL of the replica
+     */
+    private String url;
+
+    /**
+     * Login username of the replica
+     */
+    private String username;
+
+    /**
+     * Login password of the replica
+     */
+    private String password;
+
+    /**
+     * Replication lag beyond which reads fall back to the primary
+     */
+    private Duration maxLag = Duration.ofSeconds(10);
+
+    /**
+     * How often the replication lag is measured
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration getLagCheckInterval() {
+        return lagCheckInterval;
+    }
+
+    public void setLagCheckInterval(Duration lagCheckInterval) {
+        this.lagCheckInterval = lagCheckInterval;
+    }
+}
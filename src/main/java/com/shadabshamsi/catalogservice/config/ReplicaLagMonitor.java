@@ -0,0 +1,70 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Periodically measures how far the replica is behind the primary. Reads stay on the primary while the
+ * replica is too far behind or cannot be reached.
+ */
+public class ReplicaLagMonitor {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String PRIMARY_LSN_QUERY = "select pg_current_wal_lsn()::text";
+
+    // A replica that has replayed everything the primary had written when we asked is current, however
+    // old its last replayed transaction is: an idle primary sends nothing new. One that is behind, for
+    // instance because its WAL receiver disconnected, is as old as the last transaction it replayed.
+    // A server that is not in recovery is not replicating at all, so it gets no lag.
+    private static final String LAG_QUERY = "select case"
+            + " when not pg_is_in_recovery() then null"
+            + " when pg_last_wal_replay_lsn() >= cast(? as pg_lsn) then 0"
+            + " else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end";
+
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final Duration maxLag;
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(JdbcTemplate primaryJdbcTemplate, JdbcTemplate replicaJdbcTemplate, Duration maxLag,
+                             MeterRegistry meterRegistry) {
+        this.primaryJdbcTemplate = primaryJdbcTemplate;
+        this.replicaJdbcTemplate = replicaJdbcTemplate;
+        this.maxLag = maxLag;
+        Gauge.builder("catalog.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replication lag of the read replica, NaN when it cannot be reached or is not replicating")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${polar.datasource.replica.lag-check-interval:PT5S}")
+    public void checkLag() {
+        boolean wasUsable = replicaUsable;
+        try {
+            // The primary's position is read first, so a replica that keeps up is never behind it.
+            String primaryLsn = primaryJdbcTemplate.queryForObject(PRIMARY_LSN_QUERY, String.class);
+            Double lag = replicaJdbcTemplate.queryForObject(LAG_QUERY, Double.class, primaryLsn);
+            lagSeconds = lag != null ? lag : Double.NaN;
+            replicaUsable = lag != null && lag * 1000 <= maxLag.toMillis();
+        } catch (DataAccessException ex) {
+            lagSeconds = Double.NaN;
+            replicaUsable = false;
+        }
+        if (wasUsable != replicaUsable) {
+            log.info("Read replica is now {} (lag {}s)", replicaUsable ? "in use" : "bypassed", lagSeconds);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.shadabshamsi.catalogservice.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Adds a "replica" Hikari pool next to the "primary" one from {@link DataConfig} and puts both behind a
+ * routing data source. Flyway and the LISTEN connection keep talking to the primary only.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "polar.datasource.replica", name = "enabled")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("polar.datasource.replica.hikari")
+    HikariDataSource replicaDataSource(ReplicaDataSourceProperties replicaProperties) {
+        var dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaProperties.getUrl())
+                .username(replicaProperties.getUsername())
+                .password(replicaProperties.getPassword())
+                .build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                        @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                        ReplicaDataSourceProperties replicaProperties,
+                                        MeterRegistry meterRegistry) {
+        var monitor = new ReplicaLagMonitor(new JdbcTemplate(primaryDataSource), new JdbcTemplate(replicaDataSource),
+                replicaProperties.getMaxLag(), meterRegistry);
+        monitor.checkLag();
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                          @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                          ReplicaLagMonitor replicaLagMonitor,
+                          MeterRegistry meterRegistry) {
+        var routingDataSource =
+                new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor, meterRegistry);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -3,12 +3,15 @@ package com.shadabshamsi.catalogservice.config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -16,14 +19,34 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
 //@EnableWebSecurity(debug = true)
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(JwtProperties.class)
 public class SecurityConfig {
     static Logger log = LoggerFactory.getLogger(SecurityConfig.class);
 
@@ -49,10 +72,15 @@ public class SecurityConfig {
 */
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           CachingJwtAuthenticationProvider jwtAuthenticationProvider)
+            throws Exception {
         return http.authorizeHttpRequests(authorizeHttpRequests ->
                 authorizeHttpRequests
-                        .requestMatchers(HttpMethod.GET, "/", "/books/**")
+                        .requestMatchers(HttpMethod.GET, "/", "/books/**", "/v2/books/**")
+                        .permitAll()
+                        // Only served on management.server.port, which the Service does not expose
+                        .requestMatchers(HttpMethod.GET, "/actuator/prometheus", "/actuator/health/**")
                         .permitAll()
                         .anyRequest()
 //                        .denyAll()
@@ -61,7 +89,7 @@ public class SecurityConfig {
                         // .authenticated()
         ).oauth2ResourceServer(
                 oauth2ResourceServer -> oauth2ResourceServer.jwt(
-                        jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())
+                        jwt -> jwt.authenticationManager(new ProviderManager(jwtAuthenticationProvider))
                 )
         )
                 .sessionManagement(sessionManagement -> sessionManagement
@@ -94,6 +122,65 @@ public class SecurityConfig {
         return jwtAuthenticationConverter;
     }
 
+    /**
+     * Signing keys of the issuer, located through OIDC discovery like Spring Boot would.
+     */
+    @Bean
+    public RefreshingJwkSource jwkSource(JwtProperties jwtProperties) {
+        var restTemplate = new RestTemplateBuilder()
+                .setConnectTimeout(Duration.ofSeconds(5))
+                .setReadTimeout(Duration.ofSeconds(5))
+                .build();
+        var jwkSetUri = new AtomicReference<String>();
+        Supplier<JWKSet> jwkSetFetcher = () -> {
+            if (jwkSetUri.get() == null) {
+                var configuration = restTemplate.getForObject(
+                        issuerUri + "/.well-known/openid-configuration", Map.class);
+                jwkSetUri.set(String.valueOf(configuration.get("jwks_uri")));
+            }
+            try {
+                return JWKSet.parse(restTemplate.getForObject(jwkSetUri.get(), String.class));
+            } catch (ParseException ex) {
+                throw new IllegalStateException("Invalid JWK set at " + jwkSetUri.get(), ex);
+            }
+        };
+        return new RefreshingJwkSource(jwkSetFetcher, jwtProperties.getJwkMinRefetchInterval());
+    }
+
+    /**
+     * Verifies signatures against {@link #jwkSource}, with Spring Security's default claim validation
+     * for our issuer, and records the time spent on each token that was not already cached.
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(RefreshingJwkSource jwkSource, MeterRegistry meterRegistry) {
+        var jwtProcessor = new DefaultJWTProcessor<SecurityContext>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(
+                Set.of(JWSAlgorithm.RS256, JWSAlgorithm.RS384, JWSAlgorithm.RS512), jwkSource));
+        // Claims are checked by the Spring Security validators below
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> { });
+        var delegate = new NimbusJwtDecoder(jwtProcessor);
+        delegate.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        Timer decodeTimer = Timer.builder("catalog.jwt.decode")
+                .description("Time spent decoding and validating bearer tokens")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        return token -> decodeTimer.record(() -> delegate.decode(token));
+    }
+
+    @Bean
+    public CachingJwtAuthenticationProvider jwtAuthenticationProvider(JwtDecoder jwtDecoder,
+                                                                      RefreshingJwkSource jwkSource,
+                                                                      JwtProperties jwtProperties,
+                                                                      MeterRegistry meterRegistry) {
+        var jwtAuthenticationProvider = new JwtAuthenticationProvider(jwtDecoder);
+        jwtAuthenticationProvider.setJwtAuthenticationConverter(jwtAuthenticationConverter());
+        var cachingProvider = new CachingJwtAuthenticationProvider(jwtAuthenticationProvider,
+                jwtProperties.getCacheMaximumSize(), jwtProperties.getCacheMaxTtl());
+        jwkSource.addKeyRemovalListener(cachingProvider::invalidateAll);
+        CaffeineCacheMetrics.monitor(meterRegistry, cachingProvider.cache(), "jwt-authentications");
+        return cachingProvider;
+    }
+
     //    @Bean
     //    public JwtDecoder jwtDecoder() {
     //        return NimbusJwtDecoder. withPublicKey(this. key).build();
@@ -0,0 +1,50 @@
+package com.shadabshamsi.catalogservice.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+import com.shadabshamsi.catalogservice.web.ServerTiming;
+import com.shadabshamsi.catalogservice.web.ServerTiming.Phase;
+
+/**
+ * Adds the time of BookService calls, SQL and connection checkouts to the Server-Timing of the current
+ * request. SQL is timed at the repositories and at the JDBC templates that services such as BookChangeFeed
+ * and BookImportService use directly; an import's COPY streams the upload, so reading it counts as db too.
+ * Costs a thread local lookup per call while timing is off.
+ */
+@Aspect
+public class ServerTimingAspect {
+
+    @Around("execution(public * com.shadabshamsi.catalogservice.domain.BookService.*(..))")
+    public Object service(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(Phase.SERVICE, joinPoint);
+    }
+
+    @Around("execution(* com.shadabshamsi.catalogservice.domain.BookRepository+.*(..))"
+            + " || execution(* org.springframework.jdbc.core.JdbcOperations+.*(..))"
+            + " || execution(* org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations+.*(..))")
+    public Object repository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(Phase.DB, joinPoint);
+    }
+
+    // Routing and lazy data sources delegate to the pool, only the outermost checkout is counted.
+    @Around("execution(java.sql.Connection javax.sql.DataSource+.getConnection(..))")
+    public Object connection(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(Phase.POOL, joinPoint);
+    }
+
+    private static Object time(Phase phase, ProceedingJoinPoint joinPoint) throws Throwable {
+        var timing = ServerTiming.current();
+        if (timing == null) {
+            return joinPoint.proceed();
+        }
+        boolean outermost = timing.enter(phase);
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timing.exit(phase, outermost ? System.nanoTime() - start : 0);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.shadabshamsi.catalogservice.config;
+
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.shadabshamsi.catalogservice.web.ServerTimingFilter;
+
+import jakarta.servlet.Filter;
+
+@Configuration
+public class ServerTimingConfig {
+
+    // Registered whether or not timing is enabled, so it can be switched on without a restart.
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(ServerTimingProperties properties) {
+        var registration = new FilterRegistrationBean<>(new ServerTimingFilter(properties));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<Filter> serverTimingSecurityDoneFilter() {
+        var registration = new FilterRegistrationBean<>(ServerTimingFilter.securityDone());
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+
+    @Bean
+    public ServerTimingAspect serverTimingAspect() {
+        return new ServerTimingAspect();
+    }
+}
@@ -0,0 +1,37 @@
+package com.shadabshamsi.catalogservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-request phase timing. Both settings are read on every request, so they can be changed at runtime
+ * through the config server and /actuator/refresh.
+ */
+@ConfigurationProperties(prefix = "polar.server-timing")
+public class ServerTimingProperties {
+
+    /**
+     * Whether responses carry a Server-Timing header with security, service, db and pool phases
+     */
+    private boolean enabled = false;
+
+    /**
+     * Share of timed requests that are also logged with all phases, between 0 and 1
+     */
+    private double logSampleRate = 0.0;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getLogSampleRate() {
+        return logSampleRate;
+    }
+
+    public void setLogSampleRate(double logSampleRate) {
+        this.logSampleRate = logSampleRate;
+    }
+}
@@ -0,0 +1,34 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Active when spring.threads.virtual.enabled is set: Tomcat then serves every request on a virtual thread,
+ * and JDBC access is gated so the connection pool only ever sees as many borrowers as it has connections.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    static BeanPostProcessor boundedDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikariDataSource) {
+                    return new BoundedDataSource(hikariDataSource, hikariDataSource.getMaximumPoolSize(),
+                            Duration.ofMillis(hikariDataSource.getConnectionTimeout()));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shadabshamsi.catalogservice.domain.BookService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@ConditionalOnProperty(prefix = "polar.warm-up", name = "enabled", matchIfMissing = true)
+public class WarmUpConfig {
+
+    @Bean
+    public CatalogWarmUp catalogWarmUp(WarmUpProperties properties, BookService bookService,
+                                       ObjectMapper objectMapper, RefreshingJwkSource jwkSource,
+                                       List<DataSource> dataSources, MeterRegistry meterRegistry) {
+        return new CatalogWarmUp(properties, bookService, objectMapper, jwkSource, dataSources, meterRegistry);
+    }
+}
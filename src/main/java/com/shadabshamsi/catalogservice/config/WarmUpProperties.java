@@ -0,0 +1,49 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "polar.warm-up")
+public class WarmUpProperties {
+
+    /**
+     * Whether the instance warms up before it reports ready
+     */
+    private boolean enabled = true;
+
+    /**
+     * How many times the read paths and the book serializers are exercised
+     */
+    private int iterations = 200;
+
+    /**
+     * ISBNs loaded into the book cache before the first request
+     */
+    private List<String> hotIsbns = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public List<String> getHotIsbns() {
+        return hotIsbns;
+    }
+
+    public void setHotIsbns(List<String> hotIsbns) {
+        this.hotIsbns = hotIsbns;
+    }
+}
@@ -0,0 +1,19 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.time.Instant;
+
+/**
+ * One entry of the change feed. {@code book} is the book as it is now, so it is null once the book has
+ * been deleted, including for older entries of a book deleted later on.
+ */
+public record BookChange(
+    String isbn,
+
+    Operation operation,
+
+    Instant changedAt,
+
+    Book book
+) {
+    public enum Operation { INSERT, UPDATE, DELETE }
+}
@@ -0,0 +1,102 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shadabshamsi.catalogservice.config.BookChangesProperties;
+import com.shadabshamsi.catalogservice.config.PaginationProperties;
+
+/**
+ * Incremental feed over the book_change log. Entries are only handed out once every transaction that
+ * could still add an entry before them has finished, so a cursor never skips a late commit.
+ */
+@Service
+public class BookChangeFeed {
+    private static final Logger log = LoggerFactory.getLogger(BookChangeFeed.class);
+
+    private static final String CHANGES_SINCE = "select c.txid::text as txid, c.seq, c.isbn as change_isbn,"
+            + " c.operation, c.changed_at, b.id, b.isbn, b.title, b.author, b.price, b.publisher,"
+            + " b.created_date, b.last_modified_date, b.created_by, b.last_modified_by, b.version"
+            + " from book_change c left join book b on b.isbn = c.isbn"
+            + " where (c.txid, c.seq) > (cast(:txid as xid8), :seq)"
+            + " and c.txid < pg_snapshot_xmin(pg_current_snapshot())"
+            + " order by c.txid, c.seq limit :limit";
+    private static final String HORIZON = "select txid::text as txid, seq,"
+            + " (cast(:txid as xid8), :seq) < (txid, seq) as passed from book_change_horizon";
+    // Moves the horizon to the last purged entry in the same statement, so no cursor sees the entries gone
+    // before the horizon has moved.
+    private static final String PURGE = "with purged as ("
+            + "delete from book_change where changed_at < :before returning txid, seq),"
+            + " moved as (update book_change_horizon h set (txid, seq) ="
+            + " (select txid, seq from purged order by txid desc, seq desc limit 1)"
+            + " where exists (select 1 from purged p where (p.txid, p.seq) > (h.txid, h.seq)))"
+            + " select count(*) from purged";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PaginationProperties paginationProperties;
+    private final BookChangesProperties bookChangesProperties;
+
+    public BookChangeFeed(NamedParameterJdbcTemplate jdbcTemplate, PaginationProperties paginationProperties,
+                          BookChangesProperties bookChangesProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.paginationProperties = paginationProperties;
+        this.bookChangesProperties = bookChangesProperties;
+    }
+
+    @Transactional(readOnly = true)
+    public BookChangePage changesSince(String since, Integer limit) {
+        var cursor = since != null ? decodeCursor(since) : new String[] {"0", "0"};
+        int pageSize = limit == null || limit <= 0
+                ? paginationProperties.getDefaultSize()
+                : Math.min(limit, paginationProperties.getMaxSize());
+        var parameters = new MapSqlParameterSource()
+                .addValue("txid", cursor[0])
+                .addValue("seq", Long.parseLong(cursor[1]))
+                .addValue("limit", pageSize + 1);
+        var last = new String[] {cursor[0], cursor[1]};
+        List<BookChange> changes = jdbcTemplate.query(CHANGES_SINCE, parameters, (rs, rowNum) -> {
+            if (rowNum < pageSize) {
+                last[0] = rs.getString("txid");
+                last[1] = rs.getString("seq");
+            }
+            var book = rs.getObject("id") != null ? BookRowMapper.INSTANCE.mapRow(rs, rowNum) : null;
+            return new BookChange(rs.getString("change_isbn"), BookChange.Operation.valueOf(rs.getString("operation")),
+                    BookRowMapper.toInstant(rs.getTimestamp("changed_at")), book);
+        });
+        // Checked after the page: a purge committed in between has moved the horizon by now.
+        var horizon = jdbcTemplate.queryForMap(HORIZON, parameters);
+        if ((Boolean) horizon.get("passed")) {
+            return BookChangePage.resync(PageToken.encode((String) horizon.get("txid"), horizon.get("seq").toString()));
+        }
+        boolean hasMore = changes.size() > pageSize;
+        return new BookChangePage(hasMore ? changes.subList(0, pageSize) : changes,
+                PageToken.encode(last[0], last[1]), hasMore, false);
+    }
+
+    private static String[] decodeCursor(String token) {
+        var parts = PageToken.decode(token);
+        if (parts.size() != 2 || !parts.get(0).matches("\\d{1,19}") || !parts.get(1).matches("\\d{1,18}")) {
+            throw new InvalidPageTokenException(token);
+        }
+        return parts.toArray(String[]::new);
+    }
+
+    @Scheduled(fixedDelayString = "${polar.book-changes.purge-interval:PT1H}")
+    public void purgeExpired() {
+        var before = Instant.now().minus(bookChangesProperties.getRetention());
+        Integer purged = jdbcTemplate.queryForObject(PURGE, new MapSqlParameterSource("before", Timestamp.from(before)),
+                Integer.class);
+        if (purged != null && purged > 0) {
+            log.info("Purged {} book change entries older than {}", purged, before);
+        }
+    }
+}
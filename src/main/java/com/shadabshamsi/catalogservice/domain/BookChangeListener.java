@@ -0,0 +1,127 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.context.SmartLifecycle;
+
+import com.shadabshamsi.catalogservice.config.BookChangesProperties;
+
+/**
+ * Keeps the local book cache, ISBN filter and catalog version coherent with writes made by other replicas by listening
+ * to the notifications the book table trigger sends for every inserted, updated or deleted ISBN.
+ */
+public class BookChangeListener implements SmartLifecycle {
+    /**
+     * Payload sent when a whole batch of books changed at once.
+     */
+    public static final String ALL_BOOKS = "*";
+
+    /**
+     * Channel the book table trigger notifies on, fixed by the V4 and V5 migrations.
+     */
+    public static final String CHANNEL = "book_changes";
+
+    private static final Logger log = LoggerFactory.getLogger(BookChangeListener.class);
+
+    private final DataSource dataSource;
+    private final Cache bookCache;
+    private final IsbnFilter isbnFilter;
+    private final CatalogVersion catalogVersion;
+    private final BookChangesProperties properties;
+    private volatile boolean running;
+    private Thread thread;
+
+    public BookChangeListener(DataSource dataSource, Cache bookCache, IsbnFilter isbnFilter,
+                              CatalogVersion catalogVersion, BookChangesProperties properties) {
+        this.dataSource = dataSource;
+        this.bookCache = bookCache;
+        this.isbnFilter = isbnFilter;
+        this.catalogVersion = catalogVersion;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::listen, "book-change-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        isbnFilter.setNotificationsActive(false);
+        catalogVersion.setNotificationsActive(false);
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Anything could have changed while we were not listening.
+                bookCache.clear();
+                isbnFilter.invalidate();
+                catalogVersion.refresh();
+                isbnFilter.setNotificationsActive(true);
+                catalogVersion.setNotificationsActive(true);
+                log.info("Listening for book changes on channel {}", CHANNEL);
+                var pgConnection = connection.unwrap(PGConnection.class);
+                int timeout = (int) properties.getPollTimeout().toMillis();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(timeout);
+                    if (notifications != null && notifications.length > 0) {
+                        for (PGNotification notification : notifications) {
+                            onBookChanged(notification.getParameter());
+                        }
+                        // Once per batch: the version already covers every change notified so far.
+                        catalogVersion.refresh();
+                    }
+                }
+            } catch (SQLException ex) {
+                isbnFilter.setNotificationsActive(false);
+                catalogVersion.setNotificationsActive(false);
+                if (!running) {
+                    return;
+                }
+                log.warn("Lost the book change listener connection, retrying in {}",
+                        properties.getReconnectDelay(), ex);
+                try {
+                    Thread.sleep(properties.getReconnectDelay().toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    void onBookChanged(String isbn) {
+        if (ALL_BOOKS.equals(isbn)) {
+            bookCache.clear();
+            isbnFilter.invalidate();
+        } else {
+            bookCache.evict(isbn);
+            isbnFilter.put(isbn);
+        }
+    }
+}
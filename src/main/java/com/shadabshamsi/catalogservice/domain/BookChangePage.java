@@ -0,0 +1,22 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.List;
+
+/**
+ * A page of the change feed. {@code cursor} is always set: pass it as {@code since} to continue,
+ * right away while {@code hasMore} is true and on the next poll otherwise. When {@code resync} is true,
+ * changes after {@code since} have been purged: reload the catalog, then continue from {@code cursor}.
+ */
+public record BookChangePage(
+    List<BookChange> changes,
+
+    String cursor,
+
+    boolean hasMore,
+
+    boolean resync
+) {
+    static BookChangePage resync(String cursor) {
+        return new BookChangePage(List.of(), cursor, false, true);
+    }
+}
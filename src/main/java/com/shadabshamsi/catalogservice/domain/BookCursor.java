@@ -0,0 +1,42 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.List;
+
+/**
+ * Position of the last book of a page in a {@link BookSort} order: the sort key and the id that breaks ties.
+ * Pages in id order keep the plain id tokens they have always had.
+ */
+public record BookCursor(
+    Double price,
+
+    long id
+) {
+    public static BookCursor of(BookSort sort, Book book) {
+        return new BookCursor(sort == BookSort.ID ? null : book.price(), book.id());
+    }
+
+    public String encode(BookSort sort) {
+        if (sort == BookSort.ID) {
+            return PageToken.encode(String.valueOf(id));
+        }
+        return PageToken.encode(sort.parameterValue(), String.valueOf(price), String.valueOf(id));
+    }
+
+    /**
+     * @throws InvalidPageTokenException if the token is malformed or was issued for another order
+     */
+    public static BookCursor decode(String token, BookSort sort) {
+        if (sort == BookSort.ID) {
+            return new BookCursor(null, PageToken.decodeId(token));
+        }
+        List<String> parts = PageToken.decode(token);
+        if (parts.size() != 3 || !parts.get(0).equals(sort.parameterValue())) {
+            throw new InvalidPageTokenException(token);
+        }
+        try {
+            return new BookCursor(Double.valueOf(parts.get(1)), Long.parseLong(parts.get(2)));
+        } catch (NumberFormatException ex) {
+            throw new InvalidPageTokenException(token);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link Book} components a client can ask for with {@code ?fields=}, each with the column it is read
+ * from. Only these names ever make it into SQL.
+ */
+public enum BookField {
+    ID("id", "id", Book::id, (rs, column) -> rs.getLong(column)),
+    ISBN("isbn", "isbn", Book::isbn, ResultSet::getString),
+    TITLE("title", "title", Book::title, ResultSet::getString),
+    AUTHOR("author", "author", Book::author, ResultSet::getString),
+    PRICE("price", "price", Book::price, (rs, column) -> rs.getDouble(column)),
+    PUBLISHER("publisher", "publisher", Book::publisher, ResultSet::getString),
+    CREATED_DATE("createdDate", "created_date", Book::createdDate,
+            (rs, column) -> BookRowMapper.toInstant(rs.getTimestamp(column))),
+    LAST_MODIFIED_DATE("lastModifiedDate", "last_modified_date", Book::lastModifiedDate,
+            (rs, column) -> BookRowMapper.toInstant(rs.getTimestamp(column))),
+    CREATED_BY("createdBy", "created_by", Book::createdBy, ResultSet::getString),
+    LAST_MODIFIED_BY("lastModifiedBy", "last_modified_by", Book::lastModifiedBy, ResultSet::getString),
+    VERSION("version", "version", Book::version, (rs, column) -> rs.getInt(column));
+
+    private final String jsonName;
+    private final String column;
+    private final Function<Book, Object> accessor;
+    private final ColumnReader reader;
+
+    BookField(String jsonName, String column, Function<Book, Object> accessor, ColumnReader reader) {
+        this.jsonName = jsonName;
+        this.column = column;
+        this.accessor = accessor;
+        this.reader = reader;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    public String column() {
+        return column;
+    }
+
+    Object valueOf(Book book) {
+        return accessor.apply(book);
+    }
+
+    Object read(ResultSet rs) throws SQLException {
+        return reader.read(rs, column);
+    }
+
+    /**
+     * Parses a comma separated list of JSON names, such as {@code isbn,title,price}.
+     * @throws UnknownBookFieldException if a name is not one of the fields above
+     */
+    public static Set<BookField> parse(String fields) {
+        var parsed = EnumSet.noneOf(BookField.class);
+        for (String name : fields.split(",")) {
+            var trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            parsed.add(fromJsonName(trimmed));
+        }
+        if (parsed.isEmpty()) {
+            throw new UnknownBookFieldException(fields);
+        }
+        return parsed;
+    }
+
+    /**
+     * Canonical form of a field set, the same whatever order the client listed the fields in.
+     */
+    public static String toString(Set<BookField> fields) {
+        return fields.stream().sorted().map(BookField::jsonName).collect(Collectors.joining(","));
+    }
+
+    private static BookField fromJsonName(String name) {
+        for (BookField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        throw new UnknownBookFieldException(name);
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet rs, String column) throws SQLException;
+    }
+}
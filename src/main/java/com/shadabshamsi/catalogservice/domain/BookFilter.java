@@ -0,0 +1,26 @@
+package com.shadabshamsi.catalogservice.domain;
+
+/**
+ * Conditions a page of books must meet, all optional. Author and publisher match exactly, the price bounds
+ * are inclusive.
+ */
+public record BookFilter(
+    String author,
+
+    String publisher,
+
+    Double minPrice,
+
+    Double maxPrice
+) {
+    public static final BookFilter NONE = new BookFilter(null, null, null, null);
+
+    public BookFilter {
+        author = author != null && !author.isBlank() ? author : null;
+        publisher = publisher != null && !publisher.isBlank() ? publisher : null;
+    }
+
+    public boolean isEmpty() {
+        return author == null && publisher == null && minPrice == null && maxPrice == null;
+    }
+}
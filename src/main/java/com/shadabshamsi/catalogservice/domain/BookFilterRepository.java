@@ -0,0 +1,19 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.List;
+
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Filtered and sorted pages, continued by keyset so that every page is an index range scan.
+ */
+public interface BookFilterRepository {
+
+    /**
+     * Up to {@code limit} books matching {@code filter} in {@code sort} order, starting after {@code after},
+     * or from the first book when it is null. Read from the primary, like
+     * {@link BookRepository#findPageAfter(long, int)}.
+     */
+    @Transactional
+    List<Book> findPage(BookFilter filter, BookSort sort, BookCursor after, int limit);
+}
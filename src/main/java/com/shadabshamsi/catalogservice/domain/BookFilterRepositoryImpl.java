@@ -0,0 +1,51 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Builds one of a fixed set of statements: the conditions, order and keyset come from {@link BookSort}
+ * and the columns present in the filter, the values are always bound.
+ */
+class BookFilterRepositoryImpl implements BookFilterRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    BookFilterRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Book> findPage(BookFilter filter, BookSort sort, BookCursor after, int limit) {
+        var conditions = new ArrayList<String>();
+        var parameters = new MapSqlParameterSource("limit", limit);
+        if (filter.author() != null) {
+            conditions.add("author = :author");
+            parameters.addValue("author", filter.author());
+        }
+        if (filter.publisher() != null) {
+            conditions.add("publisher = :publisher");
+            parameters.addValue("publisher", filter.publisher());
+        }
+        if (filter.minPrice() != null) {
+            conditions.add("price >= :minPrice");
+            parameters.addValue("minPrice", filter.minPrice());
+        }
+        if (filter.maxPrice() != null) {
+            conditions.add("price <= :maxPrice");
+            parameters.addValue("maxPrice", filter.maxPrice());
+        }
+        if (after != null) {
+            conditions.add(sort.after());
+            parameters.addValue("afterPrice", after.price()).addValue("afterId", after.id());
+        }
+        var sql = new StringBuilder("select ").append(BookRepository.BOOK_COLUMNS).append(" from book");
+        if (!conditions.isEmpty()) {
+            sql.append(" where ").append(String.join(" and ", conditions));
+        }
+        sql.append(" order by ").append(sort.orderBy()).append(" limit :limit");
+        return jdbcTemplate.query(sql.toString(), parameters, BookRowMapper.INSTANCE);
+    }
+}
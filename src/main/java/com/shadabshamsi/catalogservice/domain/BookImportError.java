@@ -0,0 +1,10 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.Map;
+
+public record BookImportError(
+    long line,
+
+    Map<String, String> errors
+) {
+}
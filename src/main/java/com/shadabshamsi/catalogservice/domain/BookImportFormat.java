@@ -0,0 +1,6 @@
+package com.shadabshamsi.catalogservice.domain;
+
+public enum BookImportFormat {
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,16 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.List;
+
+public record BookImportResult(
+    long received,
+
+    long inserted,
+
+    long updated,
+
+    long rejected,
+
+    List<BookImportError> errors
+) {
+}
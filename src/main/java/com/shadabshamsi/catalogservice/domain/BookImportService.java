@@ -0,0 +1,260 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shadabshamsi.catalogservice.config.BookImportProperties;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Streams publisher feeds into the catalog: every line is validated like a single {@link Book},
+ * valid rows are sent through COPY into a temporary staging table and merged into book in one statement.
+ */
+@Service
+public class BookImportService {
+    private static final String CREATE_STAGING_TABLE = """
+            CREATE TEMPORARY TABLE book_import (
+              line       bigint NOT NULL,
+              isbn       varchar(255) NOT NULL,
+              title      varchar(255) NOT NULL,
+              author     varchar(255) NOT NULL,
+              price      float8 NOT NULL,
+              publisher  varchar(255)
+            ) ON COMMIT DROP
+            """;
+    private static final String COPY_INTO_STAGING_TABLE =
+            "COPY book_import (line, isbn, title, author, price, publisher) FROM STDIN WITH (FORMAT csv)";
+    // The last occurrence of an ISBN in the feed wins, ON CONFLICT cannot touch the same row twice.
+    private static final String MERGE_INTO_BOOK = """
+            WITH merged AS (
+              INSERT INTO book (isbn, title, author, price, publisher,
+                                created_date, last_modified_date, created_by, last_modified_by, version)
+              SELECT DISTINCT ON (isbn) isbn, title, author, price, publisher, ?, ?, ?, ?, 1
+              FROM book_import
+              ORDER BY isbn, line DESC
+              ON CONFLICT (isbn) DO UPDATE SET
+                title = EXCLUDED.title,
+                author = EXCLUDED.author,
+                price = EXCLUDED.price,
+                publisher = EXCLUDED.publisher,
+                last_modified_date = EXCLUDED.last_modified_date,
+                last_modified_by = EXCLUDED.last_modified_by,
+                version = book.version + 1
+              RETURNING (xmax = 0) AS inserted
+            )
+            SELECT count(*) FILTER (WHERE inserted), count(*) FILTER (WHERE NOT inserted) FROM merged
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final AuditorAware<String> auditorAware;
+    private final BookImportProperties properties;
+    private final IsbnFilter isbnFilter;
+    private final CatalogVersion catalogVersion;
+    private final CacheManager cacheManager;
+
+    public BookImportService(JdbcTemplate jdbcTemplate, Validator validator, ObjectMapper objectMapper,
+                             AuditorAware<String> auditorAware, BookImportProperties properties,
+                             IsbnFilter isbnFilter, CatalogVersion catalogVersion, CacheManager cacheManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.auditorAware = auditorAware;
+        this.properties = properties;
+        this.isbnFilter = isbnFilter;
+        this.catalogVersion = catalogVersion;
+        this.cacheManager = cacheManager;
+    }
+
+    @Transactional
+    public BookImportResult importBooks(Reader reader, BookImportFormat format) {
+        jdbcTemplate.execute(CREATE_STAGING_TABLE);
+        // One notification for the whole batch instead of one per row from the trigger.
+        jdbcTemplate.execute("SET LOCAL polar.skip_book_notify = 'on'");
+
+        var errors = new ArrayList<BookImportError>();
+        long[] counts = jdbcTemplate.execute((ConnectionCallback<long[]>) connection -> {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_INTO_STAGING_TABLE);
+            try {
+                return stage(new BufferedReader(reader), format, copyIn, errors);
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        });
+        long received = counts[0];
+        long rejected = counts[1];
+
+        var now = Timestamp.from(Instant.now());
+        var user = auditorAware.getCurrentAuditor().orElse(null);
+        long[] merged = jdbcTemplate.queryForObject(MERGE_INTO_BOOK,
+                (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)}, now, now, user, user);
+        jdbcTemplate.execute("NOTIFY " + BookChangeListener.CHANNEL + ", '" + BookChangeListener.ALL_BOOKS + "'");
+        // The notification tells the other instances; this one catches up itself, whether or not it listens.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Cache cache = cacheManager.getCache(BookService.BOOKS_CACHE);
+                if (cache != null) {
+                    cache.clear();
+                }
+                catalogVersion.refresh();
+            }
+        });
+
+        return new BookImportResult(received, merged[0], merged[1], rejected, errors);
+    }
+
+    private long[] stage(BufferedReader reader, BookImportFormat format, CopyIn copyIn,
+                         List<BookImportError> errors) throws SQLException {
+        var buffer = new StringBuilder(properties.getCopyBufferSize());
+        long lineNumber = 0;
+        long received = 0;
+        long rejected = 0;
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (format == BookImportFormat.CSV && lineNumber == 1 && isCsvHeader(line))) {
+                    continue;
+                }
+                received++;
+                var violations = new HashMap<String, String>();
+                Book book = parse(line, format, violations);
+                if (book != null) {
+                    for (ConstraintViolation<Book> violation : validator.validate(book)) {
+                        violations.put(violation.getPropertyPath().toString(), violation.getMessage());
+                    }
+                }
+                if (!violations.isEmpty()) {
+                    rejected++;
+                    if (errors.size() < properties.getMaxReportedErrors()) {
+                        errors.add(new BookImportError(lineNumber, violations));
+                    }
+                    continue;
+                }
+                // Before the commit: a filter that answers "maybe" for a book that is not there yet only
+                // costs a query, one that answers "no" for a committed book hides it.
+                isbnFilter.put(book.isbn());
+                appendCsvRow(buffer, lineNumber, book);
+                if (buffer.length() >= properties.getCopyBufferSize()) {
+                    flush(buffer, copyIn);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        flush(buffer, copyIn);
+        copyIn.endCopy();
+        return new long[] {received, rejected};
+    }
+
+    private Book parse(String line, BookImportFormat format, Map<String, String> violations) {
+        if (format == BookImportFormat.NDJSON) {
+            try {
+                return objectMapper.readValue(line, Book.class);
+            } catch (JsonProcessingException ex) {
+                violations.put("record", "The record is not valid JSON");
+                return null;
+            }
+        }
+        List<String> fields = parseCsvLine(line);
+        if (fields.size() < 4 || fields.size() > 5) {
+            violations.put("record", "The record must have isbn,title,author,price[,publisher] columns");
+            return null;
+        }
+        Double price = null;
+        try {
+            price = Double.valueOf(fields.get(3));
+        } catch (NumberFormatException ex) {
+            violations.put("price", "The Book price must be a number");
+        }
+        String publisher = fields.size() == 5 && !fields.get(4).isEmpty() ? fields.get(4) : null;
+        return Book.of(fields.get(0), fields.get(1), fields.get(2), price, publisher);
+    }
+
+    private static boolean isCsvHeader(String line) {
+        return line.regionMatches(true, 0, "isbn", 0, 4);
+    }
+
+    static List<String> parseCsvLine(String line) {
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static void appendCsvRow(StringBuilder buffer, long line, Book book) {
+        buffer.append(line).append(',');
+        appendCsvValue(buffer, book.isbn()).append(',');
+        appendCsvValue(buffer, book.title()).append(',');
+        appendCsvValue(buffer, book.author()).append(',');
+        buffer.append(book.price()).append(',');
+        if (book.publisher() != null) {
+            appendCsvValue(buffer, book.publisher());
+        }
+        buffer.append('\n');
+    }
+
+    private static StringBuilder appendCsvValue(StringBuilder buffer, String value) {
+        return buffer.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static void flush(StringBuilder buffer, CopyIn copyIn) throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
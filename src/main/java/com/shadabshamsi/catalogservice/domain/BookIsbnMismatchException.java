@@ -0,0 +1,7 @@
+package com.shadabshamsi.catalogservice.domain;
+
+public class BookIsbnMismatchException extends RuntimeException {
+    public BookIsbnMismatchException(String pathIsbn, String bodyIsbn) {
+        super("The book ISBN " + bodyIsbn + " does not match the ISBN " + pathIsbn + " it is stored under.");
+    }
+}
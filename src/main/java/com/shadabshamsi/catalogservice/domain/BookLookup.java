@@ -0,0 +1,10 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.List;
+
+public record BookLookup(
+    List<Book> books,
+
+    List<String> notFound
+) {
+}
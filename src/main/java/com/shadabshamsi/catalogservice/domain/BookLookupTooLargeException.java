@@ -0,0 +1,7 @@
+package com.shadabshamsi.catalogservice.domain;
+
+public class BookLookupTooLargeException extends RuntimeException {
+    public BookLookupTooLargeException(int maxSize) {
+        super("At most " + maxSize + " ISBNs can be looked up at once.");
+    }
+}
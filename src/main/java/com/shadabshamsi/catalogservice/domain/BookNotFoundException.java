@@ -2,6 +2,7 @@ package com.shadabshamsi.catalogservice.domain;
 
 public class BookNotFoundException extends RuntimeException {
     public BookNotFoundException(String isbn) {
-        super("The book with ISBN " + isbn + " was not found.");
+        // Thrown for every unknown ISBN a client asks for, the stack trace is never looked at.
+        super("The book with ISBN " + isbn + " was not found.", null, false, false);
     }
 }
@@ -0,0 +1,28 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Some of a book's fields, written as a JSON object with just those fields. The id and version are kept
+ * for page tokens and ETags even when they were not asked for.
+ */
+public record BookProjection(long id, int version, Map<String, Object> fields) {
+
+    public static BookProjection of(Book book, Set<BookField> fields) {
+        var values = new LinkedHashMap<String, Object>();
+        for (BookField field : fields) {
+            values.put(field.jsonName(), field.valueOf(book));
+        }
+        return new BookProjection(book.id(), book.version(), values);
+    }
+
+    @Override
+    @JsonValue
+    public Map<String, Object> fields() {
+        return fields;
+    }
+}
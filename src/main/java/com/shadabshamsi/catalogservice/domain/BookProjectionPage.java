@@ -0,0 +1,15 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.List;
+import java.util.Set;
+
+public record BookProjectionPage(
+    List<BookProjection> books,
+
+    String nextPageToken
+) {
+    public static BookProjectionPage of(BookPage page, Set<BookField> fields) {
+        return new BookProjectionPage(page.books().stream().map(book -> BookProjection.of(book, fields)).toList(),
+                page.nextPageToken());
+    }
+}
@@ -0,0 +1,23 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reads that select only the requested columns and never build a {@link Book}.
+ */
+public interface BookProjectionRepository {
+
+    @Transactional(readOnly = true)
+    Optional<BookProjection> findProjectionByIsbn(Set<BookField> fields, String isbn);
+
+    /**
+     * Same page as {@link BookRepository#findPageAfter(long, int)}, restricted to {@code fields}, and
+     * read from the primary for the same reason.
+     */
+    @Transactional
+    List<BookProjection> findProjectionPageAfter(Set<BookField> fields, long after, int limit);
+}
@@ -0,0 +1,53 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+class BookProjectionRepositoryImpl implements BookProjectionRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    BookProjectionRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<BookProjection> findProjectionByIsbn(Set<BookField> fields, String isbn) {
+        var sql = select(fields) + " from book where isbn = :isbn";
+        return jdbcTemplate.query(sql, new MapSqlParameterSource("isbn", isbn), rowMapper(fields))
+                .stream().findFirst();
+    }
+
+    @Override
+    public List<BookProjection> findProjectionPageAfter(Set<BookField> fields, long after, int limit) {
+        var sql = select(fields) + " from book where id > :after order by id limit :limit";
+        var parameters = new MapSqlParameterSource().addValue("after", after).addValue("limit", limit);
+        return jdbcTemplate.query(sql, parameters, rowMapper(fields));
+    }
+
+    // Column names come from BookField only, never from the request.
+    private static String select(Set<BookField> fields) {
+        var columns = new LinkedHashSet<String>();
+        columns.add(BookField.ID.column());
+        columns.add(BookField.VERSION.column());
+        fields.forEach(field -> columns.add(field.column()));
+        return "select " + String.join(", ", columns);
+    }
+
+    private static RowMapper<BookProjection> rowMapper(Set<BookField> fields) {
+        return (rs, rowNum) -> {
+            var values = new LinkedHashMap<String, Object>();
+            for (BookField field : fields) {
+                values.put(field.jsonName(), field.read(rs));
+            }
+            return new BookProjection(rs.getLong(BookField.ID.column()), rs.getInt(BookField.VERSION.column()),
+                    values);
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.shadabshamsi.catalogservice.domain;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jdbc.repository.query.Modifying;
@@ -7,9 +8,40 @@ import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.transaction.annotation.Transactional;
 
-public interface BookRepository extends CrudRepository<Book, Long> {
+public interface BookRepository extends CrudRepository<Book, Long>, BookUpsertRepository,
+        BookProjectionRepository, BookFilterRepository {
+    // Spelled out so custom queries do not drag the search_vector column along.
+    String BOOK_COLUMNS = "id, isbn, title, author, price, publisher, "
+            + "created_date, last_modified_date, created_by, last_modified_by, version";
+
+    // Transactional here rather than in BookService, so the transaction and its connection start after
+    // concurrent lookups of the same ISBN have been collapsed into one, and after admission control.
+    // Not read-only: these rows fill the books cache or back an ETag, which outlive the replica's lag,
+    // so they are read from the primary.
+    @Transactional
     Optional<Book> findByIsbn(String isbn);
-    boolean existsByIsbn(String isbn);
+
+    @Transactional
+    @Query(value = "select id, version from book where isbn = :isbn",
+            rowMapperClass = BookVersion.BookVersionRowMapper.class)
+    Optional<BookVersion> findVersionByIsbn(String isbn);
+
+    // One statement shape whatever the number of ISBNs, unlike an expanded IN list.
+    @Transactional
+    @Query("select " + BOOK_COLUMNS + " from book where isbn = any(:isbns)")
+    List<Book> findByIsbns(String[] isbns);
+
+    // Pages go out tagged with the catalog version read just before them from the primary. A lagging
+    // replica could return the page from before that version, which clients would then keep revalidating.
+    @Transactional
+    @Query("select " + BOOK_COLUMNS + " from book where id > :after order by id limit :limit")
+    List<Book> findPageAfter(long after, int limit);
+
+    @Transactional(readOnly = true)
+    @Query("select " + BOOK_COLUMNS + " from book, websearch_to_tsquery('simple', :query) query"
+            + " where search_vector @@ query"
+            + " order by ts_rank_cd(search_vector, query) desc, id limit :limit offset :offset")
+    List<Book> search(String query, int limit, long offset);
 
     @Modifying
     @Transactional
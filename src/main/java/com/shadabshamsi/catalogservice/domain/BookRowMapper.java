@@ -0,0 +1,30 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Maps the {@link BookRepository#BOOK_COLUMNS} of a hand-written query to a {@link Book}.
+ */
+final class BookRowMapper implements RowMapper<Book> {
+    static final BookRowMapper INSTANCE = new BookRowMapper();
+
+    private BookRowMapper() {
+    }
+
+    @Override
+    public Book mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new Book(rs.getLong("id"), rs.getString("isbn"), rs.getString("title"), rs.getString("author"),
+                rs.getDouble("price"), rs.getString("publisher"),
+                toInstant(rs.getTimestamp("created_date")), toInstant(rs.getTimestamp("last_modified_date")),
+                rs.getString("created_by"), rs.getString("last_modified_by"), rs.getInt("version"));
+    }
+
+    static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
@@ -1,42 +1,259 @@
 package com.shadabshamsi.catalogservice.domain;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import com.shadabshamsi.catalogservice.config.PaginationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Service
+@Timed(value = "catalog.book.service", description = "Time spent in BookService operations", histogram = true)
 public class BookService {
+    public static final String BOOKS_CACHE = "books";
+
     private final BookRepository bookRepository;
+    private final PaginationProperties paginationProperties;
+    private final IsbnFilter isbnFilter;
+    private final CatalogVersion catalogVersion;
+    private final CacheManager cacheManager;
+    private final SingleFlight<String, Optional<Book>> bookLookups;
+    private final SingleFlight<String, Optional<BookVersion>> versionLookups;
 
-    public BookService(BookRepository bookRepository) {
+    public BookService(BookRepository bookRepository, PaginationProperties paginationProperties,
+                       IsbnFilter isbnFilter, CatalogVersion catalogVersion, CacheManager cacheManager,
+                       MeterRegistry meterRegistry) {
         this.bookRepository = bookRepository;
+        this.paginationProperties = paginationProperties;
+        this.isbnFilter = isbnFilter;
+        this.catalogVersion = catalogVersion;
+        this.cacheManager = cacheManager;
+        this.bookLookups = new SingleFlight<>("view_book_details", meterRegistry);
+        this.versionLookups = new SingleFlight<>("view_book_version", meterRegistry);
+    }
+
+    public String viewCatalogVersion() {
+        return catalogVersion.current();
+    }
+
+    public BookPage viewBookPage(Long after, String pageToken, Integer limit) {
+        long afterId = afterId(after, pageToken);
+        int pageSize = pageSize(limit);
+        // One extra row tells us whether there is a next page without a count query.
+        return bookPage(bookRepository.findPageAfter(afterId, pageSize + 1), pageSize);
+    }
+
+    private static BookPage bookPage(List<Book> books, int pageSize) {
+        if (books.size() <= pageSize) {
+            return new BookPage(books, null);
+        }
+        var page = books.subList(0, pageSize);
+        return new BookPage(page, PageToken.encode(String.valueOf(page.get(pageSize - 1).id())));
+    }
+
+    /**
+     * The same page as {@link #viewBookPage(Long, String, Integer)}, with only {@code fields} read and returned.
+     */
+    public BookProjectionPage viewBookPage(Long after, String pageToken, Integer limit, Set<BookField> fields) {
+        long afterId = afterId(after, pageToken);
+        int pageSize = pageSize(limit);
+        var books = bookRepository.findProjectionPageAfter(fields, afterId, pageSize + 1);
+        if (books.size() <= pageSize) {
+            return new BookProjectionPage(books, null);
+        }
+        var page = books.subList(0, pageSize);
+        return new BookProjectionPage(page, PageToken.encode(String.valueOf(page.get(pageSize - 1).id())));
+    }
+
+    /**
+     * A page of the books matching {@code filter}, in {@code sort} order. Page tokens carry the sort key
+     * of the last book, so the next page starts where this one ended instead of at an offset.
+     */
+    public BookPage viewBookPage(Long after, String pageToken, Integer limit, BookFilter filter, BookSort sort) {
+        BookCursor cursor = null;
+        if (pageToken != null) {
+            cursor = BookCursor.decode(pageToken, sort);
+        } else if (after != null && sort == BookSort.ID) {
+            cursor = new BookCursor(null, after);
+        }
+        int pageSize = pageSize(limit);
+        var books = bookRepository.findPage(filter, sort, cursor, pageSize + 1);
+        if (books.size() <= pageSize) {
+            return new BookPage(books, null);
+        }
+        var page = books.subList(0, pageSize);
+        return new BookPage(page, BookCursor.of(sort, page.get(pageSize - 1)).encode(sort));
     }
 
-    public Iterable<Book> viewBookList() {
-        return bookRepository.findAll();
+    private static long afterId(Long after, String pageToken) {
+        return pageToken != null ? PageToken.decodeId(pageToken) : (after != null ? after : 0L);
+    }
+
+    public BookPage searchBooks(String query, String pageToken, Integer limit) {
+        if (query == null || query.isBlank()) {
+            return new BookPage(List.of(), null);
+        }
+        long offset = pageToken != null ? PageToken.decodeOffset(pageToken) : 0L;
+        int maxResults = paginationProperties.getMaxSearchResults();
+        int pageSize = (int) Math.min(pageSize(limit), Math.max(0, maxResults - offset));
+        if (pageSize == 0) {
+            return new BookPage(List.of(), null);
+        }
+        var books = bookRepository.search(query, pageSize + 1, offset);
+        if (books.size() <= pageSize || offset + pageSize >= maxResults) {
+            return new BookPage(books.subList(0, Math.min(books.size(), pageSize)), null);
+        }
+        return new BookPage(books.subList(0, pageSize), PageToken.encode(String.valueOf(offset + pageSize)));
     }
 
+    private int pageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return paginationProperties.getDefaultSize();
+        }
+        return Math.min(limit, paginationProperties.getMaxSize());
+    }
+
+    // Not transactional: concurrent lookups of one ISBN share a single query, and only that query
+    // should hold a connection. The repository lookups run in their own transaction on the primary,
+    // since the row they return fills the books cache or backs an ETag.
+    @Cacheable(cacheNames = BOOKS_CACHE, key = "#isbn")
     public Book viewBookDetails(String isbn) {
-        return bookRepository.findByIsbn(isbn).orElseThrow(() -> new BookNotFoundException(isbn));
+        if (!isbnFilter.mightContain(isbn)) {
+            throw new BookNotFoundException(isbn);
+        }
+        return bookLookups.execute(isbn, () -> bookRepository.findByIsbn(isbn))
+                .orElseThrow(() -> new BookNotFoundException(isbn));
     }
 
+    /**
+     * The book's {@code fields}, taken from the cached book if there is one, otherwise read on their own.
+     */
+    public BookProjection viewBookDetails(String isbn, Set<BookField> fields) {
+        if (!isbnFilter.mightContain(isbn)) {
+            throw new BookNotFoundException(isbn);
+        }
+        Cache cache = cacheManager.getCache(BOOKS_CACHE);
+        Book cachedBook = cache != null ? cache.get(isbn, Book.class) : null;
+        if (cachedBook != null) {
+            return BookProjection.of(cachedBook, fields);
+        }
+        return bookRepository.findProjectionByIsbn(fields, isbn)
+                .orElseThrow(() -> new BookNotFoundException(isbn));
+    }
+
+    /**
+     * Resolves several ISBNs at once: cached books are taken from the cache, the rest are read with a
+     * single query. Books come back in the order they were asked for, duplicates removed.
+     */
+    public BookLookup viewBooks(List<String> isbns) {
+        var requested = new LinkedHashSet<String>();
+        for (String isbn : isbns) {
+            if (!isbn.isBlank()) {
+                requested.add(isbn.trim());
+            }
+        }
+        int maxSize = paginationProperties.getMaxLookupSize();
+        if (requested.size() > maxSize) {
+            throw new BookLookupTooLargeException(maxSize);
+        }
+        Cache cache = cacheManager.getCache(BOOKS_CACHE);
+        var found = new HashMap<String, Book>();
+        var toQuery = new ArrayList<String>();
+        for (String isbn : requested) {
+            Book cachedBook = cache != null ? cache.get(isbn, Book.class) : null;
+            if (cachedBook != null) {
+                found.put(isbn, cachedBook);
+            } else if (isbnFilter.mightContain(isbn)) {
+                toQuery.add(isbn);
+            }
+        }
+        if (!toQuery.isEmpty()) {
+            for (Book book : bookRepository.findByIsbns(toQuery.toArray(String[]::new))) {
+                found.put(book.isbn(), book);
+                if (cache != null) {
+                    cache.putIfAbsent(book.isbn(), book);
+                }
+            }
+        }
+        var books = new ArrayList<Book>(found.size());
+        var notFound = new ArrayList<String>();
+        for (String isbn : requested) {
+            Book book = found.get(isbn);
+            if (book != null) {
+                books.add(book);
+            } else {
+                notFound.add(isbn);
+            }
+        }
+        return new BookLookup(books, notFound);
+    }
+
+    public BookVersion viewBookVersion(String isbn) {
+        if (!isbnFilter.mightContain(isbn)) {
+            throw new BookNotFoundException(isbn);
+        }
+        Cache cache = cacheManager.getCache(BOOKS_CACHE);
+        Book cachedBook = cache != null ? cache.get(isbn, Book.class) : null;
+        if (cachedBook != null) {
+            return BookVersion.of(cachedBook);
+        }
+        return versionLookups.execute(isbn, () -> bookRepository.findVersionByIsbn(isbn))
+                .orElseThrow(() -> new BookNotFoundException(isbn));
+    }
+
+    @CacheEvict(cacheNames = BOOKS_CACHE, key = "#book.isbn()")
     public Book addBookToCatalog(Book book) {
-        if (bookRepository.existsByIsbn(book.isbn())) {
+        Book savedBook;
+        try {
+            savedBook = bookRepository.insert(book);
+        } catch (DuplicateKeyException ex) {
             throw new BookAlreadyExistsException(book.isbn());
         }
-        return bookRepository.save(book);
+        isbnFilter.put(savedBook.isbn());
+        forgetLookups(savedBook.isbn());
+        catalogVersion.refresh();
+        return savedBook;
     }
 
+    @CacheEvict(cacheNames = BOOKS_CACHE, key = "#isbn")
     public void removeBookFromCatalog(String isbn) {
+        // A Bloom filter cannot forget, the ISBN stays a possible match until the next rebuild.
         bookRepository.deleteByIsbn(isbn);
+        forgetLookups(isbn);
+        catalogVersion.refresh();
+    }
+
+    /**
+     * Creates or replaces the book at {@code isbn}. With an {@code expectedVersion} the update only
+     * happens if the stored book is still at that version.
+     */
+    @CacheEvict(cacheNames = BOOKS_CACHE, key = "#isbn")
+    public Book editBookDetails(String isbn, Book book, BookVersion expectedVersion) {
+        var bookToSave = Book.of(isbn, book.title(), book.author(), book.price(), book.publisher());
+        var savedBook = expectedVersion == null
+                ? bookRepository.upsert(bookToSave)
+                : bookRepository.updateIfVersion(bookToSave, expectedVersion)
+                        .orElseThrow(() -> new BookVersionConflictException(isbn));
+        isbnFilter.put(savedBook.isbn());
+        forgetLookups(isbn);
+        catalogVersion.refresh();
+        return savedBook;
     }
 
-    public Book editBookDetails(String isbn, Book book) {
-        return bookRepository.findByIsbn(isbn).map(existingBook -> {
-            var bookToUpdate =
-                    new Book(existingBook.id(), existingBook.isbn(), book.title(), book.author(), book.price(),
-                            book.publisher(), existingBook.createdDate(), existingBook.lastModifiedDate(),
-                            existingBook.createdBy(), existingBook.lastModifiedBy(), existingBook.version());
-            return bookRepository.save(bookToUpdate);
-        }).orElseGet(() -> addBookToCatalog(book));
+    private void forgetLookups(String isbn) {
+        bookLookups.forget(isbn);
+        versionLookups.forget(isbn);
     }
 
 }
@@ -0,0 +1,52 @@
+package com.shadabshamsi.catalogservice.domain;
+
+/**
+ * Orders a page of books can be read in. Each ends on the id, so the order is total and a page can be
+ * continued from its last book.
+ */
+public enum BookSort {
+    ID("id", "id", "id > :afterId"),
+    PRICE("price", "price, id", "(price, id) > (:afterPrice, :afterId)"),
+    PRICE_DESC("-price", "price desc, id desc", "(price, id) < (:afterPrice, :afterId)");
+
+    private final String parameterValue;
+    private final String orderBy;
+    private final String after;
+
+    BookSort(String parameterValue, String orderBy, String after) {
+        this.parameterValue = parameterValue;
+        this.orderBy = orderBy;
+        this.after = after;
+    }
+
+    public String parameterValue() {
+        return parameterValue;
+    }
+
+    String orderBy() {
+        return orderBy;
+    }
+
+    /**
+     * Condition selecting the books that come after a {@link BookCursor}.
+     */
+    String after() {
+        return after;
+    }
+
+    /**
+     * Parses the {@code sort} request parameter, {@code id} when absent.
+     * @throws UnknownBookSortException if it names an order we cannot serve from an index
+     */
+    public static BookSort parse(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return ID;
+        }
+        for (BookSort bookSort : values()) {
+            if (bookSort.parameterValue.equals(sort.trim())) {
+                return bookSort;
+            }
+        }
+        throw new UnknownBookSortException(sort);
+    }
+}
@@ -0,0 +1,26 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.Optional;
+
+/**
+ * Writes that finish in a single statement, relying on the unique isbn constraint instead of a prior lookup.
+ */
+public interface BookUpsertRepository {
+
+    /**
+     * Inserts a new book and returns it as stored.
+     * @throws org.springframework.dao.DuplicateKeyException if the ISBN is already in the catalog
+     */
+    Book insert(Book book);
+
+    /**
+     * Inserts the book, or updates the book with the same ISBN and bumps its version.
+     */
+    Book upsert(Book book);
+
+    /**
+     * Updates the book with the same ISBN only if it is still the row and version in {@code expected}.
+     * Empty if the book does not exist, has been changed since, or was deleted and added again.
+     */
+    Optional<Book> updateIfVersion(Book book, BookVersion expected);
+}
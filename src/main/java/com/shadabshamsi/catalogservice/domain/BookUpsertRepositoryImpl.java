@@ -0,0 +1,74 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Plain SQL, so Spring Data auditing does not run here: the audit columns are filled in from the same
+ * {@link AuditorAware} and clock that auditing would use. Versions follow Spring Data's rules, starting
+ * at 1 on insert and incremented on every update.
+ */
+class BookUpsertRepositoryImpl implements BookUpsertRepository {
+    private static final String INSERT = "insert into book (isbn, title, author, price, publisher,"
+            + " created_date, last_modified_date, created_by, last_modified_by, version)"
+            + " values (:isbn, :title, :author, :price, :publisher,"
+            + " :now, :now, :auditor, :auditor, 1)";
+    private static final String RETURNING = " returning " + BookRepository.BOOK_COLUMNS;
+
+    private static final String INSERT_BOOK = INSERT + RETURNING;
+
+    private static final String UPSERT_BOOK = INSERT
+            + " on conflict (isbn) do update set title = excluded.title, author = excluded.author,"
+            + " price = excluded.price, publisher = excluded.publisher,"
+            + " last_modified_date = excluded.last_modified_date, last_modified_by = excluded.last_modified_by,"
+            + " version = book.version + 1"
+            + RETURNING;
+
+    private static final String UPDATE_BOOK_IF_VERSION = "update book set title = :title, author = :author,"
+            + " price = :price, publisher = :publisher, last_modified_date = :now, last_modified_by = :auditor,"
+            + " version = version + 1"
+            + " where isbn = :isbn and id = :expectedId and version = :expectedVersion"
+            + RETURNING;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final AuditorAware<String> auditorAware;
+
+    BookUpsertRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate, AuditorAware<String> auditorAware) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditorAware = auditorAware;
+    }
+
+    @Override
+    public Book insert(Book book) {
+        return jdbcTemplate.queryForObject(INSERT_BOOK, parameters(book), BookRowMapper.INSTANCE);
+    }
+
+    @Override
+    public Book upsert(Book book) {
+        return jdbcTemplate.queryForObject(UPSERT_BOOK, parameters(book), BookRowMapper.INSTANCE);
+    }
+
+    @Override
+    public Optional<Book> updateIfVersion(Book book, BookVersion expected) {
+        var parameters = parameters(book)
+                .addValue("expectedId", expected.id())
+                .addValue("expectedVersion", expected.version());
+        return jdbcTemplate.query(UPDATE_BOOK_IF_VERSION, parameters, BookRowMapper.INSTANCE).stream().findFirst();
+    }
+
+    private MapSqlParameterSource parameters(Book book) {
+        return new MapSqlParameterSource()
+                .addValue("isbn", book.isbn())
+                .addValue("title", book.title())
+                .addValue("author", book.author())
+                .addValue("price", book.price())
+                .addValue("publisher", book.publisher())
+                .addValue("now", Timestamp.from(Instant.now()))
+                .addValue("auditor", auditorAware.getCurrentAuditor().orElse(null));
+    }
+}
@@ -0,0 +1,23 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+
+public record BookVersion(
+    Long id,
+
+    int version
+) {
+    public static BookVersion of(Book book) {
+        return new BookVersion(book.id(), book.version());
+    }
+
+    public static class BookVersionRowMapper implements RowMapper<BookVersion> {
+        @Override
+        public BookVersion mapRow(ResultSet rs, int rowNum) throws SQLException {
+            return new BookVersion(rs.getLong("id"), rs.getInt("version"));
+        }
+    }
+}
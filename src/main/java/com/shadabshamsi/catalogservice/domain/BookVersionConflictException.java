@@ -0,0 +1,7 @@
+package com.shadabshamsi.catalogservice.domain;
+
+public class BookVersionConflictException extends RuntimeException {
+    public BookVersionConflictException(String isbn) {
+        super("The book with ISBN " + isbn + " does not exist or has been modified since it was read.");
+    }
+}
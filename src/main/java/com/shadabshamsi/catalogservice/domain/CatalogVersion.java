@@ -0,0 +1,88 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Version of the catalog, kept in the database and bumped by a trigger on every change to the book table,
+ * so all instances and restarts agree on it. While change notifications arrive, the last version read is
+ * reused and read again after each notification and local write. Without them, every call reads it.
+ */
+@Component
+public class CatalogVersion {
+    private static final Logger log = LoggerFactory.getLogger(CatalogVersion.class);
+
+    // Outside a read-only transaction, so it goes to the primary even when a replica is configured.
+    private static final String VERSION_QUERY = "select version from catalog_version";
+
+    private final LongSupplier versionReader;
+    private final AtomicLong version = new AtomicLong(-1);
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean notificationsActive;
+    private volatile boolean refreshFailed;
+
+    @Autowired
+    public CatalogVersion(JdbcTemplate jdbcTemplate) {
+        this(() -> jdbcTemplate.queryForObject(VERSION_QUERY, Long.class));
+    }
+
+    public CatalogVersion(LongSupplier versionReader) {
+        this.versionReader = versionReader;
+    }
+
+    public String current() {
+        long known = version.get();
+        if (notificationsActive && !refreshFailed && known >= 0) {
+            return Long.toString(known);
+        }
+        return Long.toString(read());
+    }
+
+    /**
+     * Reads the version again after a change made here or announced by a notification. Never throws, so a
+     * write that succeeded is not reported as failed; until a read succeeds, every call reads the version.
+     */
+    public void refresh() {
+        try {
+            read();
+            refreshFailed = false;
+        } catch (DataAccessException ex) {
+            refreshFailed = true;
+            log.warn("Could not read the catalog version, reading it on every request until it can", ex);
+        }
+    }
+
+    /**
+     * Whether changes made by other instances are being notified. Until they are, the version is read on
+     * every call.
+     */
+    public void setNotificationsActive(boolean notificationsActive) {
+        this.notificationsActive = notificationsActive;
+    }
+
+    /**
+     * Runs {@code listener} on the reading thread whenever the version moves, so it should only hand work off.
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    private long read() {
+        long read = versionReader.getAsLong();
+        // Concurrent reads can finish out of order; never go back to an older version.
+        long previous = version.getAndAccumulate(read, Math::max);
+        if (read > previous) {
+            listeners.forEach(Runnable::run);
+        }
+        return Math.max(read, previous);
+    }
+}
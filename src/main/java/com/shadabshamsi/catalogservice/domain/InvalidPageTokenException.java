@@ -0,0 +1,7 @@
+package com.shadabshamsi.catalogservice.domain;
+
+public class InvalidPageTokenException extends RuntimeException {
+    public InvalidPageTokenException(String token) {
+        super("The page token " + token + " is not valid.");
+    }
+}
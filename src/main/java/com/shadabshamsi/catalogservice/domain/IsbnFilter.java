@@ -0,0 +1,134 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.shadabshamsi.catalogservice.config.IsbnFilterProperties;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory membership filter of the ISBNs in the catalog. A negative answer is definite,
+ * so lookups for unknown ISBNs can be answered without a query. Until the first build completes,
+ * while a full rebuild is pending after a bulk change, and while change notifications are not coming
+ * in, every ISBN is reported as possibly present.
+ */
+@Component
+public class IsbnFilter {
+    private static final Logger log = LoggerFactory.getLogger(IsbnFilter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IsbnFilterProperties properties;
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "isbn-filter-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private volatile BloomFilter current;
+    private volatile BloomFilter next;
+    private volatile boolean notificationsActive;
+
+    public IsbnFilter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                      IsbnFilterProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Not read-only, so the rebuild reads the primary: a lagging replica would miss the books just
+        // imported or added, and the filter would answer "no" for them until the next rebuild.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    public boolean mightContain(String isbn) {
+        var filter = current;
+        return filter == null || !properties.isEnabled() || !notificationsActive || filter.mightContain(isbn);
+    }
+
+    /**
+     * Whether books added by other instances reach {@link #put} through change notifications. Without them,
+     * such a book would be reported as absent until the next rebuild, so the filter only says "maybe".
+     */
+    public void setNotificationsActive(boolean notificationsActive) {
+        this.notificationsActive = notificationsActive;
+    }
+
+    public void put(String isbn) {
+        var filter = current;
+        if (filter != null) {
+            filter.put(isbn);
+        }
+        // Also record it in a filter being rebuilt, whose snapshot may predate this write.
+        var building = next;
+        if (building != null) {
+            building.put(isbn);
+        }
+    }
+
+    /**
+     * Stops answering negatively until a rebuild has caught up with a change of unknown extent.
+     */
+    public void invalidate() {
+        current = null;
+        requestRebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void requestRebuild() {
+        if (properties.isEnabled() && rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException ex) {
+                    log.warn("Failed to rebuild the ISBN filter", ex);
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${polar.isbn-filter.rebuild-interval:PT1H}",
+            initialDelayString = "${polar.isbn-filter.rebuild-interval:PT1H}")
+    public void scheduledRebuild() {
+        requestRebuild();
+    }
+
+    void rebuild() {
+        long started = System.nanoTime();
+        Long count = jdbcTemplate.queryForObject("select count(*) from book", Long.class);
+        // Leave room for the catalog to grow until the next rebuild.
+        long expected = Math.max(properties.getExpectedInsertions(), count == null ? 0 : count * 2);
+        var building = new BloomFilter(expected, properties.getFalsePositiveProbability());
+        next = building;
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement("select isbn from book");
+                // Stream through a cursor instead of materializing every ISBN.
+                statement.setFetchSize(10_000);
+                return statement;
+            }, resultSet -> {
+                building.put(resultSet.getString(1));
+            }));
+            current = building;
+        } finally {
+            next = null;
+        }
+        log.info("Rebuilt the ISBN filter for {} books in {} ms", count,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,50 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque continuation token handed out to clients paging through the catalog.
+ */
+public final class PageToken {
+    private static final String SEPARATOR = "|";
+
+    private PageToken() {
+    }
+
+    public static String encode(String... parts) {
+        var raw = String.join(SEPARATOR, parts);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static List<String> decode(String token) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            return List.of(raw.split("\\" + SEPARATOR, -1));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidPageTokenException(token);
+        }
+    }
+
+    public static long decodeId(String token) {
+        return decodeLong(token);
+    }
+
+    public static long decodeOffset(String token) {
+        long offset = decodeLong(token);
+        if (offset < 0) {
+            throw new InvalidPageTokenException(token);
+        }
+        return offset;
+    }
+
+    private static long decodeLong(String token) {
+        var parts = decode(token);
+        try {
+            return Long.parseLong(parts.get(parts.size() - 1));
+        } catch (NumberFormatException ex) {
+            throw new InvalidPageTokenException(token);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Collapses concurrent calls for the same key into one: the first caller runs it, and everyone who
+ * arrives while it is running waits for and shares its result or exception. Nothing is kept once the
+ * call completes, so this is not a cache.
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter collapsedCounter;
+
+    public SingleFlight(String operation, MeterRegistry meterRegistry) {
+        this.collapsedCounter = Counter.builder("catalog.requests.collapsed")
+                .description("Calls that shared the result of an identical call already in flight")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        var flight = new CompletableFuture<V>();
+        var leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            collapsedCounter.increment();
+            return await(leader);
+        }
+        try {
+            var value = call.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Lets calls for {@code key} made from now on start their own flight instead of joining one that
+     * may have read the data before a write.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.shadabshamsi.catalogservice.domain;
+
+public class UnknownBookFieldException extends RuntimeException {
+    public UnknownBookFieldException(String field) {
+        super("The field " + field + " is not a Book field.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.shadabshamsi.catalogservice.domain;
+
+public class UnknownBookSortException extends RuntimeException {
+    public UnknownBookSortException(String sort) {
+        super("Books cannot be sorted by " + sort + ".");
+    }
+}
@@ -0,0 +1,21 @@
+package com.shadabshamsi.catalogservice.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.Repository;
+
+import com.shadabshamsi.catalogservice.domain.Book;
+import com.shadabshamsi.catalogservice.domain.BookRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking, read-only view of the book table. Writes keep going through {@link BookRepository}, whose
+ * audit columns, versions and change notifications a save here would skip, so only finders are declared.
+ */
+public interface ReactiveBookRepository extends Repository<Book, Long> {
+    Mono<Book> findByIsbn(String isbn);
+
+    @Query("select " + BookRepository.BOOK_COLUMNS + " from book where id > :after order by id limit :limit")
+    Flux<Book> findPageAfter(long after, int limit);
+}
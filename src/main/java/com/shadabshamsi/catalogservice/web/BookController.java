@@ -11,18 +11,46 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.shadabshamsi.catalogservice.domain.Book;
+import com.shadabshamsi.catalogservice.domain.BookChangeFeed;
+import com.shadabshamsi.catalogservice.domain.BookField;
+import com.shadabshamsi.catalogservice.domain.BookFilter;
+import com.shadabshamsi.catalogservice.domain.BookChangePage;
+import com.shadabshamsi.catalogservice.domain.BookImportFormat;
+import com.shadabshamsi.catalogservice.domain.BookImportResult;
+import com.shadabshamsi.catalogservice.domain.BookImportService;
+import com.shadabshamsi.catalogservice.domain.BookIsbnMismatchException;
+import com.shadabshamsi.catalogservice.domain.BookLookup;
+import com.shadabshamsi.catalogservice.domain.BookPage;
+import com.shadabshamsi.catalogservice.domain.BookProjectionPage;
 import com.shadabshamsi.catalogservice.domain.BookService;
+import com.shadabshamsi.catalogservice.domain.BookSort;
+import com.shadabshamsi.catalogservice.domain.BookVersion;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -30,23 +58,187 @@ import java.util.stream.Collectors;
 public class BookController {
     private static final Logger log =
             LoggerFactory.getLogger(BookController.class);
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    private static final BookVersion NO_VERSION = new BookVersion(-1L, -1);
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookChangeFeed bookChangeFeed;
+    private final BookPageSnapshot bookPageSnapshot;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, BookImportService bookImportService,
+                          BookChangeFeed bookChangeFeed, BookPageSnapshot bookPageSnapshot) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
+        this.bookChangeFeed = bookChangeFeed;
+        this.bookPageSnapshot = bookPageSnapshot;
+    }
+
+    /**
+     * The first page in JSON, the request almost every client starts with, copied from the pre-serialized
+     * snapshot. Other pages and formats, and any request made while the snapshot is being rebuilt, are
+     * served by {@link #get}.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE,
+            params = {"!after", "!pageToken", "!limit", "!isbn", "!fields",
+                    "!author", "!publisher", "!minPrice", "!maxPrice", "!sort"})
+    public ResponseEntity<?> getFirstPage(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            NativeWebRequest request) {
+        var snapshot = bookPageSnapshot.current();
+        if (snapshot == null) {
+            return get(null, null, null, null, BookFilter.NONE, null, request);
+        }
+        vary(request, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        var gzip = acceptsGzip(acceptEncoding);
+        // The gzip body is not byte-for-byte the identity body, so a strong tag cannot be shared between them.
+        var etag = "catalog-" + snapshot.catalogVersion() + (gzip ? ";gzip" : "");
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        var response = ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(snapshot.body(gzip));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (var coding : acceptEncoding.split(",")) {
+            var parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0{0,3})?");
+            }
+        }
+        return false;
     }
 
     @GetMapping
-    public Iterable<Book> get() {
+    public ResponseEntity<?> get(@RequestParam(required = false) Long after,
+                                 @RequestParam(required = false) String pageToken,
+                                 @RequestParam(required = false) Integer limit,
+                                 @RequestParam(required = false) String fields,
+                                 BookFilter filter,
+                                 @RequestParam(required = false) String sort,
+                                 NativeWebRequest request) {
+        var projection = fields != null ? BookField.parse(fields) : null;
+        var bookSort = BookSort.parse(sort);
+        vary(request, HttpHeaders.ACCEPT);
+        // Read the version before the page, both from the primary, so a concurrent write can only make the tag
+        // older, never newer.
+        var etag = "catalog-" + bookService.viewCatalogVersion() + fieldsSuffix(projection) + formatSuffix(request);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         log.info(
-                "Fetching the list of books in the catalog"
+                "Fetching a page of books in the catalog"
         );
-        return bookService.viewBookList();
+        if (!filter.isEmpty() || bookSort != BookSort.ID) {
+            // Filtered pages read whole rows, a projection only trims what is sent.
+            var page = bookService.viewBookPage(after, pageToken, limit, filter, bookSort);
+            if (projection != null) {
+                return ResponseEntity.ok().eTag(etag).body(BookProjectionPage.of(page, projection));
+            }
+            return ResponseEntity.ok().eTag(etag).body(page);
+        }
+        if (projection != null) {
+            return ResponseEntity.ok().eTag(etag).body(bookService.viewBookPage(after, pageToken, limit, projection));
+        }
+        return ResponseEntity.ok().eTag(etag).body(bookService.viewBookPage(after, pageToken, limit));
+    }
+
+    // A projection is a different representation of the same resource, so it needs a tag of its own.
+    private static String fieldsSuffix(Set<BookField> projection) {
+        return projection != null ? ";fields=" + BookField.toString(projection) : "";
+    }
+
+    // So are Smile and CBOR. JSON keeps the bare tag; the choice follows the Accept header the way content
+    // negotiation makes it: highest quality first, and a concrete type before a wildcard of the same quality.
+    private static String formatSuffix(WebRequest request) {
+        var accept = request.getHeaderValues(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return "";
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(Arrays.asList(accept));
+        } catch (InvalidMediaTypeException ex) {
+            return "";
+        }
+        mediaTypes.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed()
+                .thenComparing(MediaType::isWildcardType)
+                .thenComparing(MediaType::isWildcardSubtype));
+        for (var mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return "";
+            }
+            if (mediaType.isCompatibleWith(APPLICATION_SMILE)) {
+                return ";smile";
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return ";cbor";
+            }
+        }
+        return "";
+    }
+
+    // Set on the servlet response rather than the entity so that a 304 carries it as well.
+    private static void vary(NativeWebRequest request, String... headers) {
+        var response = request.getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            for (var header : headers) {
+                response.addHeader(HttpHeaders.VARY, header);
+            }
+        }
+    }
+
+    @GetMapping(params = "isbn")
+    public BookLookup lookup(@RequestParam List<String> isbn) {
+        return bookService.viewBooks(isbn);
+    }
+
+    @GetMapping("search")
+    public BookPage search(@RequestParam String q,
+                           @RequestParam(required = false) String pageToken,
+                           @RequestParam(required = false) Integer limit) {
+        return bookService.searchBooks(q, pageToken, limit);
+    }
+
+    @GetMapping("changes")
+    public BookChangePage changes(@RequestParam(required = false) String since,
+                                  @RequestParam(required = false) Integer limit) {
+        return bookChangeFeed.changesSince(since, limit);
     }
 
     @GetMapping("{isbn}")
-    public Book getByIsbn(@PathVariable String isbn) {
-        return bookService.viewBookDetails(isbn);
+    public ResponseEntity<?> getByIsbn(@PathVariable String isbn,
+                                       @RequestParam(required = false) String fields,
+                                       NativeWebRequest request) {
+        var projection = fields != null ? BookField.parse(fields) : null;
+        vary(request, HttpHeaders.ACCEPT);
+        var suffix = fieldsSuffix(projection) + formatSuffix(request);
+        // Revalidation only needs id and version, not the whole row.
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(etag(bookService.viewBookVersion(isbn)) + suffix)) {
+            return null;
+        }
+        if (projection != null) {
+            var book = bookService.viewBookDetails(isbn, projection);
+            var etag = etag(new BookVersion(book.id(), book.version())) + suffix;
+            return ResponseEntity.ok().eTag(etag).body(book);
+        }
+        var book = bookService.viewBookDetails(isbn);
+        return ResponseEntity.ok().eTag(etag(BookVersion.of(book)) + suffix).body(book);
+    }
+
+    private static String etag(BookVersion version) {
+        return version.id() + "-" + version.version();
     }
 
     private List<String> rolesUser() {
@@ -67,6 +259,15 @@ public class BookController {
         return bookService.addBookToCatalog(book);
     }
 
+    @PostMapping(path = "import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    public BookImportResult importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                        InputStream body) {
+        var format = contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? BookImportFormat.NDJSON : BookImportFormat.CSV;
+        var charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        return bookImportService.importBooks(new InputStreamReader(body, charset), format);
+    }
+
     @DeleteMapping("{isbn}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable String isbn) {
@@ -74,8 +275,36 @@ public class BookController {
     }
 
     @PutMapping("{isbn}")
-    public Book put(@PathVariable String isbn, @Valid @RequestBody Book book) {
-        return bookService.editBookDetails(isbn, book);
+    public ResponseEntity<Book> put(@PathVariable String isbn, @Valid @RequestBody Book book,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                    NativeWebRequest request) {
+        // Only the body is validated, and without If-Match the write is an upsert keyed on the path ISBN.
+        if (!isbn.equals(book.isbn())) {
+            throw new BookIsbnMismatchException(isbn, book.isbn());
+        }
+        var savedBook = bookService.editBookDetails(isbn, book, expectedVersion(ifMatch));
+        vary(request, HttpHeaders.ACCEPT);
+        return ResponseEntity.ok().eTag(etag(BookVersion.of(savedBook)) + formatSuffix(request)).body(savedBook);
+    }
+
+    // Our ETags are "id-version", perhaps followed by ";fields=..." or a format. The id matters as much as the
+    // version: a book deleted and added again starts over at version 1 under a new id. Anything else can never
+    // match the stored book.
+    private static BookVersion expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        var tag = ifMatch.trim().replaceFirst("^W/", "").replace("\"", "").replaceFirst(";.*$", "");
+        var separator = tag.lastIndexOf('-');
+        if (separator < 0) {
+            return NO_VERSION;
+        }
+        try {
+            return new BookVersion(Long.valueOf(tag.substring(0, separator)),
+                    Integer.parseInt(tag.substring(separator + 1)));
+        } catch (NumberFormatException ex) {
+            return NO_VERSION;
+        }
     }
 
 }
@@ -1,32 +1,105 @@
 package com.shadabshamsi.catalogservice.web;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.shadabshamsi.catalogservice.config.AdmissionRejectedException;
 import com.shadabshamsi.catalogservice.domain.BookAlreadyExistsException;
+import com.shadabshamsi.catalogservice.domain.BookIsbnMismatchException;
+import com.shadabshamsi.catalogservice.domain.BookLookupTooLargeException;
 import com.shadabshamsi.catalogservice.domain.BookNotFoundException;
+import com.shadabshamsi.catalogservice.domain.BookVersionConflictException;
+import com.shadabshamsi.catalogservice.domain.InvalidPageTokenException;
+import com.shadabshamsi.catalogservice.domain.UnknownBookFieldException;
+import com.shadabshamsi.catalogservice.domain.UnknownBookSortException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
 import java.util.HashMap;
 import java.util.Map;
 
 @RestControllerAdvice
 public class BookControllerAdvice {
-    
+    private static final String OUTCOMES_METRIC = "catalog.book.outcomes";
+
+    private final Counter notFoundCounter;
+    private final Counter alreadyExistsCounter;
+
+    public BookControllerAdvice(MeterRegistry meterRegistry) {
+        this.notFoundCounter = Counter.builder(OUTCOMES_METRIC)
+                .description("Book requests answered with a domain error")
+                .tag("outcome", "not_found")
+                .register(meterRegistry);
+        this.alreadyExistsCounter = Counter.builder(OUTCOMES_METRIC)
+                .description("Book requests answered with a domain error")
+                .tag("outcome", "already_exists")
+                .register(meterRegistry);
+    }
+
     @ExceptionHandler(BookNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public String handleBookNotFoundException(BookNotFoundException ex) {
+        notFoundCounter.increment();
         return ex.getMessage();
     }
 
     @ExceptionHandler(BookAlreadyExistsException.class)
     @ResponseStatus(HttpStatus.CONFLICT)
     public String handleBookAlreadyExistsException(BookAlreadyExistsException ex) {
+        alreadyExistsCounter.increment();
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(BookVersionConflictException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public String handleBookVersionConflictException(BookVersionConflictException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(BookIsbnMismatchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleBookIsbnMismatchException(BookIsbnMismatchException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(InvalidPageTokenException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleInvalidPageTokenException(InvalidPageTokenException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(UnknownBookFieldException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleUnknownBookFieldException(UnknownBookFieldException ex) {
         return ex.getMessage();
     }
 
+    @ExceptionHandler(UnknownBookSortException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleUnknownBookSortException(UnknownBookSortException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(BookLookupTooLargeException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleBookLookupTooLargeException(BookLookupTooLargeException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<String> handleAdmissionRejectedException(AdmissionRejectedException ex) {
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(ex.getMessage());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<String, String> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
@@ -0,0 +1,149 @@
+package com.shadabshamsi.catalogservice.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.shadabshamsi.catalogservice.config.AdmissionRejectedException;
+import com.shadabshamsi.catalogservice.domain.BookService;
+import com.shadabshamsi.catalogservice.domain.CatalogVersion;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The first page of {@code GET /books} with default parameters, serialized to JSON and gzipped ahead of time and
+ * kept in direct buffers outside the heap. It is rebuilt in the background whenever the catalog version moves
+ * and only handed out while it still matches the current version, so readers never see an older catalog than
+ * the query would have returned.
+ */
+@Component
+public class BookPageSnapshot {
+    private static final Logger log = LoggerFactory.getLogger(BookPageSnapshot.class);
+
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "book-page-snapshot-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    public BookPageSnapshot(BookService bookService, ObjectMapper objectMapper, CatalogVersion catalogVersion) {
+        this.bookService = bookService;
+        this.objectMapper = objectMapper;
+        catalogVersion.addListener(this::requestRebuild);
+    }
+
+    /**
+     * The snapshot of the current catalog version, or {@code null} while it is being (re)built.
+     */
+    public Snapshot current() {
+        var current = snapshot;
+        if (current == null || !current.catalogVersion().equals(bookService.viewCatalogVersion())) {
+            requestRebuild();
+            return null;
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                } catch (AdmissionRejectedException ex) {
+                    // Shed like any other read under overload; the next request for the page asks again.
+                    log.debug("Book page snapshot rebuild shed by admission control");
+                } catch (RuntimeException ex) {
+                    log.warn("Failed to rebuild the book page snapshot", ex);
+                }
+            });
+        }
+    }
+
+    void rebuild() {
+        // Read the version before the page, both from the primary, so the snapshot can only be tagged older
+        // than what it holds, never newer.
+        var catalogVersion = bookService.viewCatalogVersion();
+        try {
+            var json = objectMapper.writeValueAsBytes(bookService.viewBookPage(null, null, null));
+            snapshot = Snapshot.of(catalogVersion, json);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    public record Snapshot(String catalogVersion, ByteBuffer json, ByteBuffer gzippedJson) {
+
+        public static Snapshot of(String catalogVersion, byte[] json) {
+            var gzipped = new ByteArrayOutputStream(json.length / 4);
+            try (var gzip = new GZIPOutputStream(gzipped)) {
+                gzip.write(json);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return new Snapshot(catalogVersion, direct(json), direct(gzipped.toByteArray()));
+        }
+
+        private static ByteBuffer direct(byte[] bytes) {
+            return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().asReadOnlyBuffer();
+        }
+
+        public Resource body(boolean gzipped) {
+            return new ByteBufferResource(gzipped ? gzippedJson : json);
+        }
+    }
+
+    /**
+     * Streams a buffer to the response in chunks instead of copying it into a heap array first. Each call reads
+     * from its own view of the buffer, so concurrent responses do not interfere.
+     */
+    private static class ByteBufferResource extends AbstractResource {
+        private final ByteBuffer buffer;
+
+        ByteBufferResource(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteBufferBackedInputStream(buffer.duplicate());
+        }
+
+        @Override
+        public long contentLength() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public String getDescription() {
+            return "book page snapshot";
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.shadabshamsi.catalogservice.web;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.shadabshamsi.catalogservice.config.PaginationProperties;
+import com.shadabshamsi.catalogservice.domain.Book;
+import com.shadabshamsi.catalogservice.domain.BookNotFoundException;
+import com.shadabshamsi.catalogservice.reactive.ReactiveBookRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only catalog API backed by R2DBC. Rows are written to the response as they arrive, and the request
+ * thread is released while the database works.
+ */
+@RestController
+@RequestMapping("v2/books")
+@ConditionalOnProperty(prefix = "polar.reactive", name = "enabled", matchIfMissing = true)
+public class ReactiveBookController {
+    private final ReactiveBookRepository reactiveBookRepository;
+    private final PaginationProperties paginationProperties;
+
+    public ReactiveBookController(ReactiveBookRepository reactiveBookRepository,
+                                  PaginationProperties paginationProperties) {
+        this.reactiveBookRepository = reactiveBookRepository;
+        this.paginationProperties = paginationProperties;
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Book> stream(@RequestParam(defaultValue = "0") long after) {
+        return streamAfter(after, paginationProperties.getMaxSize());
+    }
+
+    @GetMapping("{isbn}")
+    public Mono<Book> getByIsbn(@PathVariable String isbn) {
+        return reactiveBookRepository.findByIsbn(isbn)
+                .switchIfEmpty(Mono.error(() -> new BookNotFoundException(isbn)));
+    }
+
+    // The next page is only queried once the client has consumed the current one,
+    // so a slow reader holds at most one page in memory.
+    private Flux<Book> streamAfter(long after, int pageSize) {
+        return reactiveBookRepository.findPageAfter(after, pageSize).collectList().flatMapMany(page -> {
+            var books = Flux.fromIterable(page);
+            if (page.size() < pageSize) {
+                return books;
+            }
+            long lastId = page.get(page.size() - 1).id();
+            return books.concatWith(Flux.defer(() -> streamAfter(lastId, pageSize)));
+        });
+    }
+}
@@ -0,0 +1,115 @@
+package com.shadabshamsi.catalogservice.web;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Where the time of one request went, kept on the thread serving it while Server-Timing is switched on.
+ * Phases can overlap: service time includes the db time of the repository calls it made, which includes
+ * the time spent waiting for a pooled connection.
+ */
+public final class ServerTiming {
+    public static final String HEADER = "Server-Timing";
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    public enum Phase { SECURITY, SERVICE, DB, POOL, WRITE }
+
+    private final long startNanos = System.nanoTime();
+    private final long[] nanos = new long[Phase.values().length];
+    private final int[] depth = new int[Phase.values().length];
+    private long securityEndNanos;
+    private long writeStartNanos;
+    private long endNanos;
+
+    private ServerTiming() {
+    }
+
+    /**
+     * The timing of the request on this thread, {@code null} when Server-Timing is off.
+     */
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    static ServerTiming begin() {
+        var timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Marks the start of a call belonging to {@code phase}. Returns false for a call nested in another one
+     * of the same phase, whose time is already being counted.
+     */
+    public boolean enter(Phase phase) {
+        return depth[phase.ordinal()]++ == 0;
+    }
+
+    public void exit(Phase phase, long elapsedNanos) {
+        depth[phase.ordinal()]--;
+        nanos[phase.ordinal()] += elapsedNanos;
+    }
+
+    void securityDone() {
+        securityEndNanos = System.nanoTime();
+    }
+
+    void writeStarted() {
+        writeStartNanos = System.nanoTime();
+    }
+
+    void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    /**
+     * The phases measured so far, as a Server-Timing header value.
+     */
+    String headerValue() {
+        var now = endNanos != 0 ? endNanos : System.nanoTime();
+        var header = new StringJoiner(", ");
+        forEachPhase(now, (name, phaseNanos) -> header.add(name + ";dur=" + millis(phaseNanos)));
+        header.add("total;dur=" + millis(now - startNanos));
+        return header.toString();
+    }
+
+    /**
+     * All phases and the total, as {@code name=milliseconds} pairs for a log line.
+     */
+    String logValue() {
+        var line = new StringJoiner(" ");
+        forEachPhase(endNanos, (name, phaseNanos) -> line.add(name + "=" + millis(phaseNanos)));
+        line.add("total=" + millis(endNanos - startNanos));
+        return line.toString();
+    }
+
+    private void forEachPhase(long now, PhaseConsumer consumer) {
+        for (Phase phase : Phase.values()) {
+            long phaseNanos = switch (phase) {
+                // Without a mark the chain never let the request through, so all of it was security.
+                case SECURITY -> (securityEndNanos != 0 ? securityEndNanos : now) - startNanos;
+                // Repository time less the wait for a connection, which is reported on its own
+                case DB -> Math.max(0, nanos[Phase.DB.ordinal()] - nanos[Phase.POOL.ordinal()]);
+                case WRITE -> writeStartNanos != 0 && endNanos != 0 ? endNanos - writeStartNanos : 0;
+                default -> nanos[phase.ordinal()];
+            };
+            if (phaseNanos > 0) {
+                consumer.accept(phase.name().toLowerCase(Locale.ROOT), phaseNanos);
+            }
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    @FunctionalInterface
+    private interface PhaseConsumer {
+        void accept(String name, long nanos);
+    }
+}
@@ -0,0 +1,67 @@
+package com.shadabshamsi.catalogservice.web;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.shadabshamsi.catalogservice.config.ServerTimingProperties;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Times each request while polar.server-timing.enabled is set. Runs just before the security filter chain;
+ * {@link #securityDone()} runs just after it. The header is normally added by {@link ServerTimingResponseAdvice} when the body starts,
+ * and here for responses without one. Only the sampled log line includes the time spent writing the body.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    private final ServerTimingProperties properties;
+
+    public ServerTimingFilter(ServerTimingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!properties.isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        var timing = ServerTiming.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ServerTiming.clear();
+            timing.finish();
+            if (!response.isCommitted() && !response.containsHeader(ServerTiming.HEADER)) {
+                response.addHeader(ServerTiming.HEADER, timing.headerValue());
+            }
+            if (ThreadLocalRandom.current().nextDouble() < properties.getLogSampleRate()) {
+                log.info("server-timing method={} uri={} status={} {}", request.getMethod(),
+                        request.getRequestURI(), response.getStatus(), timing.logValue());
+            }
+        }
+    }
+
+    /**
+     * Marks the end of the security phase for the request going through it.
+     */
+    public static Filter securityDone() {
+        return (request, response, chain) -> {
+            var timing = ServerTiming.current();
+            if (timing != null) {
+                timing.securityDone();
+            }
+            chain.doFilter(request, response);
+        };
+    }
+}
@@ -0,0 +1,7 @@
+-- The last (txid, seq) the purge has removed from book_change. A feed cursor below it may have missed
+-- purged entries, so its consumer is told to reload the catalog instead of silently drifting.
+CREATE TABLE book_change_horizon (
+  txid  xid8 NOT NULL,
+  seq   bigint NOT NULL
+);
+INSERT INTO book_change_horizon (txid, seq) VALUES ('0', 0);
@@ -0,0 +1,17 @@
+CREATE FUNCTION notify_book_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('book_changes', OLD.isbn);
+    ELSE
+        PERFORM pg_notify('book_changes', NEW.isbn);
+        IF TG_OP = 'UPDATE' AND OLD.isbn <> NEW.isbn THEN
+            PERFORM pg_notify('book_changes', OLD.isbn);
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER book_change_notification
+    AFTER INSERT OR UPDATE OR DELETE ON book
+    FOR EACH ROW EXECUTE FUNCTION notify_book_change();
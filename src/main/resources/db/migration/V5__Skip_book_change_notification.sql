@@ -0,0 +1,17 @@
+-- Bulk imports set polar.skip_book_notify for their transaction and send a single notification instead.
+CREATE OR REPLACE FUNCTION notify_book_change() RETURNS trigger AS $$
+BEGIN
+    IF current_setting('polar.skip_book_notify', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('book_changes', OLD.isbn);
+    ELSE
+        PERFORM pg_notify('book_changes', NEW.isbn);
+        IF TG_OP = 'UPDATE' AND OLD.isbn <> NEW.isbn THEN
+            PERFORM pg_notify('book_changes', OLD.isbn);
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
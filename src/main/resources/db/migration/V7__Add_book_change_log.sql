@@ -0,0 +1,30 @@
+-- Append-only log of book changes for the GET /books/changes feed. Deletes leave a row here too,
+-- so consumers see tombstones. txid orders entries by writing transaction: once a txid is below the
+-- xmin of the current snapshot, no entry with a smaller txid can still show up.
+CREATE TABLE book_change (
+  seq         BIGSERIAL PRIMARY KEY NOT NULL,
+  txid        xid8 NOT NULL DEFAULT pg_current_xact_id(),
+  isbn        varchar(255) NOT NULL,
+  operation   varchar(6) NOT NULL,
+  changed_at  timestamptz NOT NULL DEFAULT now()
+);
+CREATE INDEX book_change_cursor_idx ON book_change (txid, seq);
+CREATE INDEX book_change_changed_at_idx ON book_change (changed_at);
+
+CREATE FUNCTION record_book_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO book_change (isbn, operation) VALUES (OLD.isbn, TG_OP);
+    ELSE
+        IF TG_OP = 'UPDATE' AND OLD.isbn <> NEW.isbn THEN
+            INSERT INTO book_change (isbn, operation) VALUES (OLD.isbn, 'DELETE');
+        END IF;
+        INSERT INTO book_change (isbn, operation) VALUES (NEW.isbn, TG_OP);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER book_change_log
+AFTER INSERT OR UPDATE OR DELETE ON book
+FOR EACH ROW EXECUTE FUNCTION record_book_change();
@@ -0,0 +1,14 @@
+-- Built CONCURRENTLY so that writes to book carry on while the indexes are built, which is why this
+-- migration runs outside a transaction (see the .conf file next to it). If it fails part way, drop the
+-- INVALID index it leaves behind before running it again.
+
+-- An equality on author or publisher, a price range and the (price, id) keyset of a page sorted by
+-- price all fall within one range of these indexes. The trailing id breaks ties between equal prices.
+CREATE INDEX CONCURRENTLY book_author_price_id_idx ON book (author, price, id);
+CREATE INDEX CONCURRENTLY book_publisher_price_id_idx ON book (publisher, price, id);
+CREATE INDEX CONCURRENTLY book_price_id_idx ON book (price, id);
+
+-- Pages filtered by author or publisher in the default id order. Author and publisher together have no
+-- index of their own: the two below are ANDed as bitmaps and the few books of one author are sorted.
+CREATE INDEX CONCURRENTLY book_author_id_idx ON book (author, id);
+CREATE INDEX CONCURRENTLY book_publisher_id_idx ON book (publisher, id);
@@ -0,0 +1,19 @@
+-- A single row holding the version of the whole catalog, which every instance reads for the catalog
+-- ETag. It is bumped once per statement that changes books. Each writer holds the row lock until
+-- it commits, so versions follow commit order: once version N is visible, every change up to N is too.
+-- A sequence or max(book_change.seq) can run ahead of changes that are not committed yet.
+CREATE TABLE catalog_version (
+  version  bigint NOT NULL
+);
+INSERT INTO catalog_version (version) VALUES (0);
+
+CREATE FUNCTION bump_catalog_version() RETURNS trigger AS $$
+BEGIN
+    UPDATE catalog_version SET version = version + 1;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER catalog_version_bump
+AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON book
+FOR EACH STATEMENT EXECUTE FUNCTION bump_catalog_version();
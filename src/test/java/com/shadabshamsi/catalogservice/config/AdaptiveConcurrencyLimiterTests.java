@@ -0,0 +1,88 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.shadabshamsi.catalogservice.config.AdaptiveConcurrencyLimiter.Operation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTests {
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void whenLimitReachedThenCallsAreRejectedAndCounted() {
+        var limiter = limiter(4, AdmissionProperties.Priority.READS);
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryAcquire(Operation.READ)).isTrue();
+        }
+
+        assertThat(limiter.tryAcquire(Operation.READ)).isFalse();
+        assertThat(meterRegistry.counter("catalog.admission.rejected", "operation", "read").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("catalog.admission.in.flight").gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    void whenNearLimitThenOnlyPrioritisedOperationIsAdmitted() {
+        var limiter = limiter(5, AdmissionProperties.Priority.WRITES);
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryAcquire(Operation.READ)).isTrue();
+        }
+
+        assertThat(limiter.tryAcquire(Operation.READ)).isFalse();
+        assertThat(limiter.tryAcquire(Operation.WRITE)).isTrue();
+        assertThat(meterRegistry.counter("catalog.admission.rejected", "operation", "read").count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenCallsAreSlowOrDroppedThenLimitBacksOff() {
+        var limiter = limiter(10, AdmissionProperties.Priority.READS);
+
+        limiter.tryAcquire(Operation.READ);
+        limiter.release(SLOW, false);
+        assertThat(limiter.getLimit()).isEqualTo(9);
+        limiter.tryAcquire(Operation.READ);
+        limiter.release(FAST, true);
+        assertThat(limiter.getLimit()).isEqualTo(8);
+        assertThat(meterRegistry.get("catalog.admission.limit").gauge().value()).isEqualTo(8);
+    }
+
+    @Test
+    void whenFastCallsUseTheLimitThenItGrowsUpToMaximum() {
+        var limiter = limiter(2, AdmissionProperties.Priority.READS);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire(Operation.READ);
+            limiter.release(FAST, false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void whenIdleThenLimitDoesNotGrow() {
+        var limiter = limiter(10, AdmissionProperties.Priority.READS);
+
+        limiter.tryAcquire(Operation.READ);
+        limiter.release(FAST, false);
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, AdmissionProperties.Priority priority) {
+        var properties = new AdmissionProperties();
+        properties.setInitialLimit(initialLimit);
+        properties.setMinLimit(1);
+        properties.setMaxLimit(3 * initialLimit / 2);
+        properties.setLatencyThreshold(Duration.ofMillis(500));
+        properties.setBackoffRatio(0.9);
+        properties.setReservedShare(0.2);
+        properties.setPriority(priority);
+        return new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+    }
+}
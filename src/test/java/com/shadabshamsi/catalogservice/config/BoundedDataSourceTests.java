@@ -0,0 +1,43 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class BoundedDataSourceTests {
+
+    @Test
+    void whenAllPermitsTakenThenNextBorrowerTimesOut() throws Exception {
+        var target = mock(DataSource.class);
+        given(target.getConnection()).willAnswer(invocation -> mock(Connection.class));
+        var dataSource = new BoundedDataSource(target, 1, Duration.ofMillis(10));
+
+        var connection = dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        connection.close();
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void whenConnectionClosedTwiceThenPermitReleasedOnce() throws Exception {
+        var target = mock(DataSource.class);
+        given(target.getConnection()).willAnswer(invocation -> mock(Connection.class));
+        var dataSource = new BoundedDataSource(target, 2, Duration.ofMillis(10));
+
+        var connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,97 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CachingJwtAuthenticationProviderTests {
+    private final AuthenticationProvider delegate = mock(AuthenticationProvider.class);
+    private final CachingJwtAuthenticationProvider provider =
+            new CachingJwtAuthenticationProvider(delegate, 100, Duration.ofMinutes(10));
+
+    @Test
+    void whenSameTokenPresentedTwiceThenVerifiedOnce() {
+        var authentication = authentication(Instant.now().minusSeconds(10), Instant.now().plusSeconds(300));
+        given(delegate.authenticate(any())).willReturn(authentication);
+
+        provider.authenticate(new BearerTokenAuthenticationToken("token"));
+        provider.authenticate(new BearerTokenAuthenticationToken("token"));
+
+        verify(delegate, times(1)).authenticate(any());
+    }
+
+    @Test
+    void whenCachedTokenReusedThenEachRequestGetsItsOwnAuthentication() {
+        var authentication = authentication(Instant.now().minusSeconds(10), Instant.now().plusSeconds(300));
+        given(delegate.authenticate(any())).willReturn(authentication);
+        provider.authenticate(new BearerTokenAuthenticationToken("token"));
+
+        var first = (JwtAuthenticationToken) provider.authenticate(new BearerTokenAuthenticationToken("token"));
+        first.setDetails("first request");
+        var second = (JwtAuthenticationToken) provider.authenticate(new BearerTokenAuthenticationToken("token"));
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getDetails()).isNull();
+        assertThat(second.getToken()).isSameAs(authentication.getToken());
+        assertThat(second.getName()).isEqualTo("isabelle");
+        assertThat(second.getAuthorities()).isEqualTo(authentication.getAuthorities());
+    }
+
+    @Test
+    void whenTokenNotYetActiveThenNotCached() {
+        var authentication = authentication(Instant.now().plusSeconds(30), Instant.now().plusSeconds(300));
+        given(delegate.authenticate(any())).willReturn(authentication);
+
+        provider.authenticate(new BearerTokenAuthenticationToken("token"));
+        provider.authenticate(new BearerTokenAuthenticationToken("token"));
+
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    @Test
+    void whenKeysRotatedThenTokensVerifiedAgain() {
+        var authentication = authentication(Instant.now().minusSeconds(10), Instant.now().plusSeconds(300));
+        given(delegate.authenticate(any())).willReturn(authentication);
+
+        provider.authenticate(new BearerTokenAuthenticationToken("token"));
+        provider.invalidateAll();
+        provider.authenticate(new BearerTokenAuthenticationToken("token"));
+
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    @Test
+    void entryExpiresWithToken() {
+        var authentication = authentication(Instant.now().minusSeconds(10), Instant.now().plusSeconds(60));
+        given(delegate.authenticate(any())).willReturn(authentication);
+
+        provider.authenticate(new BearerTokenAuthenticationToken("token"));
+
+        var expiresIn = provider.cache().policy().expireVariably().orElseThrow()
+                .getExpiresAfter(provider.cache().asMap().keySet().iterator().next()).orElseThrow();
+        assertThat(expiresIn).isLessThanOrEqualTo(Duration.ofSeconds(60));
+    }
+
+    private static JwtAuthenticationToken authentication(Instant notBefore, Instant expiresAt) {
+        var jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("isabelle")
+                .issuedAt(Instant.now().minusSeconds(10))
+                .notBefore(notBefore)
+                .expiresAt(expiresAt)
+                .build();
+        return new JwtAuthenticationToken(jwt);
+    }
+}
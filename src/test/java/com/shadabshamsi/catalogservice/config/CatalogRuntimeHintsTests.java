@@ -0,0 +1,43 @@
+package com.shadabshamsi.catalogservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.interceptor.TransactionalProxy;
+
+import com.shadabshamsi.catalogservice.domain.Book;
+import com.shadabshamsi.catalogservice.domain.BookRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogRuntimeHintsTests {
+    private final RuntimeHints hints = new RuntimeHints();
+
+    CatalogRuntimeHintsTests() {
+        new CatalogRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void bookCanBeMappedAndSerialized() throws Exception {
+        assertThat(RuntimeHintsPredicates.reflection().onType(Book.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(Book.class.getMethod("isbn"))).accepts(hints);
+    }
+
+    @Test
+    void repositoryCanBeProxied() {
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(BookRepository.class, Repository.class,
+                TransactionalProxy.class, Advised.class, DecoratingProxy.class)).accepts(hints);
+    }
+
+    @Test
+    void propertiesCanBeBound() throws Exception {
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(PolarProperties.class.getMethod("setGreeting",
+                String.class))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(JwtProperties.class)).accepts(hints);
+    }
+}
@@ -0,0 +1,81 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.sql.Connection;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.shadabshamsi.catalogservice.domain.Book;
+import com.shadabshamsi.catalogservice.domain.BookNotFoundException;
+import com.shadabshamsi.catalogservice.domain.BookPage;
+import com.shadabshamsi.catalogservice.domain.BookService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CatalogWarmUpTests {
+    private final BookService bookService = mock(BookService.class);
+    private final RefreshingJwkSource jwkSource = mock(RefreshingJwkSource.class);
+    private final HikariDataSource pool = mock(HikariDataSource.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WarmUpProperties properties = new WarmUpProperties();
+
+    @Test
+    void warmUpFillsPoolsFetchesKeysAndRunsReadPaths() throws Exception {
+        var connection = mock(Connection.class);
+        given(pool.getPoolName()).willReturn("primary");
+        given(pool.getMinimumIdle()).willReturn(3);
+        given(pool.getConnection()).willReturn(connection);
+        given(bookService.viewBookPage(null, null, null)).willReturn(
+                new BookPage(List.of(Book.of("1234567890", "Title", "Author", 9.90, null)), null));
+        given(bookService.viewBookDetails("1234567891")).willThrow(new BookNotFoundException("1234567891"));
+        properties.setIterations(3);
+        properties.setHotIsbns(List.of("1234567890", "1234567891"));
+
+        // A routing data source in front of the pool unwraps to it as well
+        warmUp(List.of(wrapperOf(pool), wrapperOf(pool))).warmUp();
+
+        verify(pool, times(3)).getConnection();
+        verify(connection, times(3)).close();
+        verify(jwkSource).refresh();
+        verify(bookService, times(3)).viewBookPage(null, null, null);
+        verify(bookService, times(4)).viewBookDetails("1234567890");
+        verify(bookService).viewBookDetails("1234567891");
+        assertThat(meterRegistry.get("catalog.warmup").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenAStepFailsThenTheOthersStillRun() throws Exception {
+        given(jwkSource.hasKeys()).willReturn(true);
+        given(bookService.viewBookPage(null, null, null))
+                .willThrow(new DataAccessResourceFailureException("Database is down"));
+        properties.setHotIsbns(List.of("1234567890"));
+
+        warmUp(List.of()).warmUp();
+
+        verify(jwkSource, times(0)).refresh();
+        verify(bookService).viewBookDetails("1234567890");
+        assertThat(meterRegistry.get("catalog.warmup").timer().count()).isEqualTo(1);
+    }
+
+    private CatalogWarmUp warmUp(List<DataSource> dataSources) {
+        return new CatalogWarmUp(properties, bookService, Jackson2ObjectMapperBuilder.json().build(), jwkSource,
+                dataSources, meterRegistry);
+    }
+
+    private static DataSource wrapperOf(HikariDataSource pool) throws Exception {
+        var dataSource = mock(DataSource.class);
+        given(dataSource.isWrapperFor(HikariDataSource.class)).willReturn(true);
+        given(dataSource.unwrap(HikariDataSource.class)).willReturn(pool);
+        return dataSource;
+    }
+}
@@ -0,0 +1,76 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefreshingJwkSourceTests {
+
+    @Test
+    void whenKeyRemovedFromSetThenListenersNotified() throws Exception {
+        var oldKey = rsaKey("old");
+        var newKey = rsaKey("new");
+        var published = new AtomicReference<>(new JWKSet(oldKey));
+        var source = new RefreshingJwkSource(published::get, Duration.ofSeconds(30));
+        var rotations = new AtomicInteger();
+        source.addKeyRemovalListener(rotations::incrementAndGet);
+        source.fetchEagerly();
+
+        published.set(new JWKSet(List.of(oldKey, newKey)));
+        source.refresh();
+        assertThat(rotations).hasValue(0);
+
+        published.set(new JWKSet(newKey));
+        source.refresh();
+        assertThat(rotations).hasValue(1);
+    }
+
+    @Test
+    void whenStartupFetchFailsThenKeysFetchedOnFirstToken() throws Exception {
+        var key = rsaKey("kid");
+        var available = new AtomicReference<JWKSet>();
+        var source = new RefreshingJwkSource(() -> {
+            if (available.get() == null) {
+                throw new IllegalStateException("issuer down");
+            }
+            return available.get();
+        }, Duration.ZERO);
+        source.fetchEagerly();
+
+        available.set(new JWKSet(key));
+
+        assertThat(source.get(new JWKSelector(new JWKMatcher.Builder().keyID("kid").build()), null))
+                .extracting(jwk -> jwk.getKeyID()).containsExactly("kid");
+    }
+
+    @Test
+    void unknownKeyIdRefetchesAtMostOncePerInterval() throws Exception {
+        var fetches = new AtomicInteger();
+        var key = rsaKey("kid");
+        var source = new RefreshingJwkSource(() -> {
+            fetches.incrementAndGet();
+            return new JWKSet(key);
+        }, Duration.ofMinutes(1));
+        source.fetchEagerly();
+        var unknown = new JWKSelector(new JWKMatcher.Builder().keyID("unknown").build());
+
+        assertThat(source.get(unknown, null)).isEmpty();
+        assertThat(source.get(unknown, null)).isEmpty();
+        assertThat(fetches).hasValue(1);
+    }
+
+    private static RSAKey rsaKey(String keyId) throws Exception {
+        return new RSAKeyGenerator(2048).keyID(keyId).generate();
+    }
+}
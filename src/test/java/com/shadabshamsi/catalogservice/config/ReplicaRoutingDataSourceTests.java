@@ -0,0 +1,77 @@
+package com.shadabshamsi.catalogservice.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class ReplicaRoutingDataSourceTests {
+    private static final String PRIMARY_LSN = "0/3000000";
+
+    private final JdbcTemplate primaryJdbcTemplate = mock(JdbcTemplate.class);
+    private final JdbcTemplate replicaJdbcTemplate = mock(JdbcTemplate.class);
+    private final ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(primaryJdbcTemplate, replicaJdbcTemplate,
+            Duration.ofSeconds(10), new SimpleMeterRegistry());
+    private final ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(
+            mock(DataSource.class), mock(DataSource.class), lagMonitor, new SimpleMeterRegistry());
+
+    @BeforeEach
+    void primaryPosition() {
+        given(primaryJdbcTemplate.queryForObject(anyString(), eq(String.class))).willReturn(PRIMARY_LSN);
+    }
+
+    @AfterEach
+    void clearTransactionState() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void whenReadOnlyTransactionAndReplicaCurrentThenRoutesToReplica() {
+        given(replicaJdbcTemplate.queryForObject(anyString(), eq(Double.class), eq(PRIMARY_LSN))).willReturn(0.5);
+        lagMonitor.checkLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.REPLICA);
+    }
+
+    @Test
+    void whenReadWriteTransactionThenRoutesToPrimary() {
+        given(replicaJdbcTemplate.queryForObject(anyString(), eq(Double.class), eq(PRIMARY_LSN))).willReturn(0.0);
+        lagMonitor.checkLag();
+
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+    }
+
+    @Test
+    void whenReplicaLagsIsNotReplicatingOrIsDownThenReadsFallBackToPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        given(replicaJdbcTemplate.queryForObject(anyString(), eq(Double.class), eq(PRIMARY_LSN))).willReturn(30.0);
+        lagMonitor.checkLag();
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+
+        // Not in recovery: a promoted or standalone server
+        given(replicaJdbcTemplate.queryForObject(anyString(), eq(Double.class), eq(PRIMARY_LSN))).willReturn(null);
+        lagMonitor.checkLag();
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+
+        given(replicaJdbcTemplate.queryForObject(anyString(), eq(Double.class), eq(PRIMARY_LSN)))
+                .willThrow(new DataAccessResourceFailureException("replica down"));
+        lagMonitor.checkLag();
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+    }
+}
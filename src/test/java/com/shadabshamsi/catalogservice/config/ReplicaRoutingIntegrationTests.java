@@ -0,0 +1,119 @@
+package com.shadabshamsi.catalogservice.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+import java.util.Optional;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.shadabshamsi.catalogservice.domain.Book;
+import com.shadabshamsi.catalogservice.domain.BookField;
+import com.shadabshamsi.catalogservice.domain.BookFilter;
+import com.shadabshamsi.catalogservice.domain.BookSort;
+import com.shadabshamsi.catalogservice.domain.BookRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Two independent databases stand in for a primary and its replica: a row that exists only on the
+ * "replica" shows which one a query went to. The "replica" is not in recovery, so the lag monitor is
+ * replaced to keep it in use.
+ */
+@DataJdbcTest
+@Import({DataConfig.class, ReplicaRoutingConfig.class, SimpleMeterRegistry.class})
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers
+class ReplicaRoutingIntegrationTests {
+
+    @Container
+    static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:15.3");
+    @Container
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:15.3");
+
+    @DynamicPropertySource
+    static void dataSources(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("polar.datasource.replica.enabled", () -> "true");
+        registry.add("polar.datasource.replica.url", replica::getJdbcUrl);
+        registry.add("polar.datasource.replica.username", replica::getUsername);
+        registry.add("polar.datasource.replica.password", replica::getPassword);
+    }
+
+    @BeforeAll
+    static void migrateReplica() {
+        // Flyway only runs against the primary, a real replica would get the schema through replication.
+        Flyway.configure().dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())
+                .load().migrate();
+        new JdbcTemplate(new DriverManagerDataSource(replica.getJdbcUrl(), replica.getUsername(),
+                replica.getPassword())).update("insert into book (isbn, title, author, price, created_date,"
+                + " last_modified_date, version) values ('1234567890', 'Title', 'Author', 9.90, now(), now(), 1)");
+    }
+
+    @MockBean
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void replicaInUse() {
+        given(replicaLagMonitor.isReplicaUsable()).willReturn(true);
+    }
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        var readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Optional<Book> book = readOnly.execute(status -> bookRepository.findByIsbn("1234567890"));
+
+        assertThat(book).isPresent();
+    }
+
+    @Test
+    void cachedOrTaggedReadsGoToPrimary() {
+        assertThat(bookRepository.findByIsbn("1234567890")).isEmpty();
+        assertThat(bookRepository.findVersionByIsbn("1234567890")).isEmpty();
+        assertThat(bookRepository.findByIsbns(new String[] {"1234567890"})).isEmpty();
+        assertThat(bookRepository.findPageAfter(0, 10)).isEmpty();
+        assertThat(bookRepository.findPage(BookFilter.NONE, BookSort.PRICE, null, 10)).isEmpty();
+        assertThat(bookRepository.findProjectionPageAfter(BookField.parse("isbn"), 0, 10)).isEmpty();
+    }
+
+    @Test
+    void readWriteTransactionsGoToPrimary() {
+        var readWrite = new TransactionTemplate(transactionManager);
+
+        Optional<Book> book = readWrite.execute(status -> bookRepository.findByIsbn("1234567890"));
+
+        assertThat(book).isEmpty();
+    }
+}
@@ -0,0 +1,34 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTests {
+
+    @Test
+    void whenIsbnPutThenAlwaysReportedAsPossiblyPresent() {
+        var filter = new BloomFilter(10_000, 0.01);
+        for (long i = 0; i < 10_000; i++) {
+            filter.put(String.valueOf(1_000_000_000L + i));
+        }
+        for (long i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain(String.valueOf(1_000_000_000L + i))).isTrue();
+        }
+    }
+
+    @Test
+    void whenIsbnNeverPutThenMostlyReportedAsAbsent() {
+        var filter = new BloomFilter(10_000, 0.01);
+        for (long i = 0; i < 10_000; i++) {
+            filter.put(String.valueOf(1_000_000_000L + i));
+        }
+        long falsePositives = 0;
+        for (long i = 0; i < 10_000; i++) {
+            if (filter.mightContain(String.valueOf(9_000_000_000L + i))) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
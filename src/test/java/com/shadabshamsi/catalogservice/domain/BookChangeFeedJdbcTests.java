@@ -0,0 +1,89 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shadabshamsi.catalogservice.config.BookChangesProperties;
+import com.shadabshamsi.catalogservice.config.DataConfig;
+import com.shadabshamsi.catalogservice.config.PaginationProperties;
+
+// Entries of a transaction only become visible once it has ended, so the tests must not run in one.
+@DataJdbcTest
+@Import({DataConfig.class, BookChangeFeed.class})
+@EnableConfigurationProperties({PaginationProperties.class, BookChangesProperties.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("integration")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookChangeFeedJdbcTests {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookChangeFeed bookChangeFeed;
+
+    @Autowired
+    private BookChangesProperties bookChangesProperties;
+
+    @Test
+    void changesArePagedFromCursorAndDeletesLeaveTombstones() {
+        var start = drain(null);
+        bookRepository.insert(Book.of("1234567801", "Title", "Author", 9.90, null));
+        bookRepository.upsert(Book.of("1234567801", "Title", "Author", 7.95, null));
+        bookRepository.insert(Book.of("1234567802", "Title", "Author", 9.90, null));
+        bookRepository.deleteByIsbn("1234567802");
+
+        var firstPage = bookChangeFeed.changesSince(start, 3);
+        var secondPage = bookChangeFeed.changesSince(firstPage.cursor(), 3);
+
+        assertThat(firstPage.hasMore()).isTrue();
+        assertThat(firstPage.changes()).extracting(BookChange::operation).containsExactly(
+                BookChange.Operation.INSERT, BookChange.Operation.UPDATE, BookChange.Operation.INSERT);
+        assertThat(firstPage.changes().get(1).book().price()).isEqualTo(7.95);
+        assertThat(secondPage.hasMore()).isFalse();
+        assertThat(secondPage.changes()).singleElement().satisfies(change -> {
+            assertThat(change.isbn()).isEqualTo("1234567802");
+            assertThat(change.operation()).isEqualTo(BookChange.Operation.DELETE);
+            assertThat(change.book()).isNull();
+        });
+        assertThat(bookChangeFeed.changesSince(secondPage.cursor(), 3).changes()).isEmpty();
+    }
+
+    @Test
+    void cursorBehindPurgedEntriesIsToldToResync() {
+        var start = drain(null);
+        bookRepository.insert(Book.of("1234567803", "Title", "Author", 9.90, null));
+        bookRepository.deleteByIsbn("1234567803");
+        var retention = bookChangesProperties.getRetention();
+        bookChangesProperties.setRetention(Duration.ZERO);
+        try {
+            bookChangeFeed.purgeExpired();
+        } finally {
+            bookChangesProperties.setRetention(retention);
+        }
+
+        var page = bookChangeFeed.changesSince(start, 10);
+
+        assertThat(page.resync()).isTrue();
+        assertThat(page.changes()).isEmpty();
+        var next = bookChangeFeed.changesSince(page.cursor(), 10);
+        assertThat(next.resync()).isFalse();
+        assertThat(next.changes()).isEmpty();
+    }
+
+    private String drain(String cursor) {
+        var page = bookChangeFeed.changesSince(cursor, 100);
+        return page.hasMore() || page.resync() ? drain(page.cursor()) : page.cursor();
+    }
+}
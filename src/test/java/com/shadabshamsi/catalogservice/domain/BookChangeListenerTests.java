@@ -0,0 +1,40 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import com.shadabshamsi.catalogservice.config.BookChangesProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class BookChangeListenerTests {
+
+    private final ConcurrentMapCache cache = new ConcurrentMapCache(BookService.BOOKS_CACHE);
+    private final IsbnFilter isbnFilter = mock(IsbnFilter.class);
+    private final BookChangeListener listener = new BookChangeListener(null, cache, isbnFilter,
+            new CatalogVersion(() -> 0L), new BookChangesProperties());
+
+    @Test
+    void whenBookChangedThenOnlyThatIsbnEvicted() {
+        cache.put("1234567890", Book.of("1234567890", "Title", "Author", 9.90, null));
+        cache.put("1234567891", Book.of("1234567891", "Title", "Author", 9.90, null));
+
+        listener.onBookChanged("1234567890");
+
+        assertThat(cache.get("1234567890")).isNull();
+        assertThat(cache.get("1234567891")).isNotNull();
+        verify(isbnFilter).put("1234567890");
+    }
+
+    @Test
+    void whenAllBooksChangedThenCacheCleared() {
+        cache.put("1234567890", Book.of("1234567890", "Title", "Author", 9.90, null));
+
+        listener.onBookChanged(BookChangeListener.ALL_BOOKS);
+
+        assertThat(cache.getNativeCache()).isEmpty();
+        verify(isbnFilter).invalidate();
+    }
+}
@@ -0,0 +1,87 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+import java.io.StringReader;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shadabshamsi.catalogservice.config.BookImportProperties;
+import com.shadabshamsi.catalogservice.config.DataConfig;
+
+// The import has to commit for this instance to catch up, so the tests must not run in a transaction.
+@DataJdbcTest
+@Import({DataConfig.class, BookImportService.class, CatalogVersion.class, BookImportServiceJdbcTests.Caches.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@EnableConfigurationProperties(BookImportProperties.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("integration")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookImportServiceJdbcTests {
+
+    @MockBean
+    private IsbnFilter isbnFilter;
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteImportedBooks() {
+        jdbcTemplate.update("delete from book where isbn in ('1234567701', '1234567702')");
+    }
+
+    @Test
+    void importedBooksAreVisibleToThisInstanceWithoutNotifications() {
+        var cache = cacheManager.getCache(BookService.BOOKS_CACHE);
+        cache.put("1234567701", Book.of("1234567701", "Old title", "Author", 9.90, null));
+        long before = Long.parseLong(catalogVersion.current());
+        catalogVersion.setNotificationsActive(true);
+
+        var result = bookImportService.importBooks(new StringReader("""
+                1234567701,New title,Author,9.90
+                1234567702,Title,Author,12.90,Polarsophia
+                """), BookImportFormat.CSV);
+
+        assertThat(result.received()).isEqualTo(2);
+        verify(isbnFilter).put("1234567701");
+        verify(isbnFilter).put("1234567702");
+        assertThat(cache.get("1234567701")).isNull();
+        assertThat(Long.parseLong(catalogVersion.current())).isGreaterThan(before);
+    }
+
+    @TestConfiguration
+    static class Caches {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(BookService.BOOKS_CACHE);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookImportServiceTests {
+
+    @Test
+    void whenCsvLineHasQuotedFieldsThenCommasAndQuotesArePreserved() {
+        var fields = BookImportService.parseCsvLine("1234567890,\"Title, with \"\"quotes\"\"\",Author,9.90,");
+
+        assertThat(fields).containsExactly("1234567890", "Title, with \"quotes\"", "Author", "9.90", "");
+    }
+
+    @Test
+    void whenCsvLineIsPlainThenSplitOnCommas() {
+        assertThat(BookImportService.parseCsvLine("1234567890,Title,Author,9.90"))
+                .containsExactly("1234567890", "Title", "Author", "9.90");
+    }
+}
@@ -1,7 +1,11 @@
 package com.shadabshamsi.catalogservice.domain;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.entry;
 
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
@@ -9,7 +13,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.jdbc.core.JdbcAggregateTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -29,6 +35,21 @@ public class BookRepositoryJdbcTests {
     @Autowired
     private JdbcAggregateTemplate jdbcAggregateTemplate;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void catalogVersionMovesWithEveryWrite() {
+        var catalogVersion = new CatalogVersion(jdbcTemplate);
+        long beforeUpsert = Long.parseLong(catalogVersion.current());
+        bookRepository.upsert(Book.of("1234561260", "Title", "Author", 12.90, null));
+        long beforeDelete = Long.parseLong(catalogVersion.current());
+        bookRepository.deleteByIsbn("1234561260");
+
+        assertThat(beforeDelete).isGreaterThan(beforeUpsert);
+        assertThat(Long.parseLong(catalogVersion.current())).isGreaterThan(beforeDelete);
+    }
+
     @Test
     void findBookByIsbnWhenExisting() {
         var bookIsbn = "1234561237";
@@ -40,6 +61,70 @@ public class BookRepositoryJdbcTests {
         assertThat(actualBook.get().isbn()).isEqualTo(book.isbn());
     }
 
+    @Test
+    void findByIsbnsReturnsOnlyExistingBooks() {
+        jdbcAggregateTemplate.insert(Book.of("1234561250", "Title", "Author", 12.90, null));
+        jdbcAggregateTemplate.insert(Book.of("1234561251", "Title", "Author", 12.90, null));
+
+        List<Book> books = bookRepository.findByIsbns(new String[] {"1234561250", "1234561251", "1234561252"});
+
+        assertThat(books).extracting(Book::isbn).containsExactlyInAnyOrder("1234561250", "1234561251");
+    }
+
+    @Test
+    void findProjectionPageAfterReadsOnlyRequestedFields() {
+        var book = jdbcAggregateTemplate.insert(Book.of("1234561253", "Title", "Author", 12.90, null));
+
+        List<BookProjection> page = bookRepository.findProjectionPageAfter(
+                EnumSet.of(BookField.ISBN, BookField.PRICE), book.id() - 1, 1);
+
+        assertThat(page).singleElement().satisfies(projection -> {
+            assertThat(projection.id()).isEqualTo(book.id());
+            assertThat(projection.fields()).containsOnly(entry("isbn", "1234561253"), entry("price", 12.90));
+        });
+    }
+
+    @Test
+    void findPageFiltersByAuthorAndPriceAndContinuesFromCursor() {
+        jdbcAggregateTemplate.insert(Book.of("1234561260", "Title", "Filtered Author", 30.00, null));
+        var cheap = jdbcAggregateTemplate.insert(Book.of("1234561261", "Title", "Filtered Author", 9.90, null));
+        var sameA = jdbcAggregateTemplate.insert(Book.of("1234561262", "Title", "Filtered Author", 14.90, null));
+        var sameB = jdbcAggregateTemplate.insert(Book.of("1234561263", "Title", "Filtered Author", 14.90, null));
+        jdbcAggregateTemplate.insert(Book.of("1234561264", "Title", "Other Author", 12.90, null));
+        var filter = new BookFilter("Filtered Author", null, null, 20.0);
+
+        List<Book> firstPage = bookRepository.findPage(filter, BookSort.PRICE, null, 2);
+        List<Book> secondPage = bookRepository.findPage(filter, BookSort.PRICE,
+                BookCursor.of(BookSort.PRICE, firstPage.get(1)), 2);
+
+        assertThat(firstPage).extracting(Book::id).containsExactly(cheap.id(), sameA.id());
+        assertThat(secondPage).extracting(Book::id).containsExactly(sameB.id());
+        assertThat(bookRepository.findPage(filter, BookSort.PRICE_DESC, null, 10)).extracting(Book::id)
+                .containsExactly(sameB.id(), sameA.id(), cheap.id());
+    }
+
+    @Test
+    void findPageAfterReturnsBooksOrderedById() {
+        var first = jdbcAggregateTemplate.insert(Book.of("1234561238", "Title", "Author", 12.90, null));
+        var second = jdbcAggregateTemplate.insert(Book.of("1234561239", "Title", "Author", 12.90, null));
+
+        List<Book> page = bookRepository.findPageAfter(first.id() - 1, 2);
+
+        assertThat(page).extracting(Book::id).containsExactly(first.id(), second.id());
+        assertThat(bookRepository.findPageAfter(second.id(), 10)).extracting(Book::id)
+                .doesNotContain(first.id(), second.id());
+    }
+
+    @Test
+    void searchRanksTitleMatchesAbovePublisherMatches() {
+        var byPublisher = jdbcAggregateTemplate.insert(Book.of("1234561240", "Cooking", "Author", 12.90, "Polarsophia"));
+        var byTitle = jdbcAggregateTemplate.insert(Book.of("1234561241", "Polarsophia Rising", "Author", 12.90, null));
+
+        List<Book> results = bookRepository.search("polarsophia", 10, 0);
+
+        assertThat(results).extracting(Book::id).containsExactly(byTitle.id(), byPublisher.id());
+    }
+
     @Test
     void whenCreateBookNotAuthenticatedThenNoAuditMetadata() {
         var bookToCreate = Book.of("1232343456", "Title",
@@ -62,4 +147,46 @@ public class BookRepositoryJdbcTests {
         assertThat(createdBook.lastModifiedBy())
                 .isEqualTo("john");
     }
+
+    @Test
+    @WithMockUser("john")
+    void insertStartsAtVersionOneWithAuditMetadata() {
+        var insertedBook = bookRepository.insert(Book.of("1232343458", "Title", "Author", 12.90, null));
+
+        assertThat(insertedBook.id()).isNotNull();
+        assertThat(insertedBook.version()).isEqualTo(1);
+        assertThat(insertedBook.createdBy()).isEqualTo("john");
+        assertThat(insertedBook.createdDate()).isNotNull();
+    }
+
+    @Test
+    void insertDuplicateIsbnFailsOnConstraint() {
+        bookRepository.insert(Book.of("1232343459", "Title", "Author", 12.90, null));
+
+        assertThatExceptionOfType(DuplicateKeyException.class).isThrownBy(() ->
+                bookRepository.insert(Book.of("1232343459", "Other", "Author", 12.90, null)));
+    }
+
+    @Test
+    void upsertUpdatesExistingBookAndBumpsVersion() {
+        var insertedBook = bookRepository.upsert(Book.of("1232343460", "Title", "Author", 12.90, null));
+        var updatedBook = bookRepository.upsert(Book.of("1232343460", "Title", "Author", 7.95, null));
+
+        assertThat(updatedBook.id()).isEqualTo(insertedBook.id());
+        assertThat(updatedBook.price()).isEqualTo(7.95);
+        assertThat(updatedBook.version()).isEqualTo(insertedBook.version() + 1);
+        assertThat(updatedBook.createdDate()).isEqualTo(insertedBook.createdDate());
+    }
+
+    @Test
+    void updateIfVersionOnlyAppliesToExpectedVersion() {
+        var insertedBook = bookRepository.insert(Book.of("1232343461", "Title", "Author", 12.90, null));
+
+        assertThat(bookRepository.updateIfVersion(Book.of("1232343461", "Title", "Author", 7.95, null),
+                new BookVersion(insertedBook.id(), insertedBook.version() + 1))).isEmpty();
+        assertThat(bookRepository.updateIfVersion(Book.of("1232343461", "Title", "Author", 7.95, null),
+                new BookVersion(insertedBook.id() + 1, insertedBook.version()))).isEmpty();
+        assertThat(bookRepository.updateIfVersion(Book.of("1232343461", "Title", "Author", 7.95, null),
+                BookVersion.of(insertedBook))).hasValueSatisfying(book -> assertThat(book.price()).isEqualTo(7.95));
+    }
 }
@@ -0,0 +1,70 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogVersionTests {
+    private final AtomicLong storedVersion = new AtomicLong(7);
+    private final AtomicInteger reads = new AtomicInteger();
+    private final CatalogVersion catalogVersion = new CatalogVersion(() -> {
+        reads.incrementAndGet();
+        return storedVersion.get();
+    });
+
+    @Test
+    void withoutNotificationsEveryCallReadsTheStoredVersion() {
+        assertThat(catalogVersion.current()).isEqualTo("7");
+        storedVersion.set(8);
+
+        assertThat(catalogVersion.current()).isEqualTo("8");
+        assertThat(reads).hasValue(2);
+    }
+
+    @Test
+    void withNotificationsTheVersionIsReadOnRefreshOnly() {
+        catalogVersion.refresh();
+        catalogVersion.setNotificationsActive(true);
+        storedVersion.set(8);
+
+        assertThat(catalogVersion.current()).isEqualTo("7");
+        catalogVersion.refresh();
+        assertThat(catalogVersion.current()).isEqualTo("8");
+        assertThat(reads).hasValue(2);
+    }
+
+    @Test
+    void versionNeverGoesBackAndListenersHearWhenItMoves() {
+        var moves = new AtomicInteger();
+        catalogVersion.addListener(moves::incrementAndGet);
+        catalogVersion.refresh();
+
+        storedVersion.set(6);
+        assertThat(catalogVersion.current()).isEqualTo("7");
+        storedVersion.set(9);
+        assertThat(catalogVersion.current()).isEqualTo("9");
+        assertThat(moves).hasValue(2);
+    }
+
+    @Test
+    void whenRefreshFailsThenTheVersionIsReadOnEveryCall() {
+        var failing = new AtomicInteger();
+        var version = new CatalogVersion(() -> {
+            if (failing.getAndIncrement() == 1) {
+                throw new DataAccessResourceFailureException("Database is down");
+            }
+            return storedVersion.get();
+        });
+        version.refresh();
+        version.setNotificationsActive(true);
+
+        version.refresh();
+        storedVersion.set(8);
+
+        assertThat(version.current()).isEqualTo("8");
+    }
+}
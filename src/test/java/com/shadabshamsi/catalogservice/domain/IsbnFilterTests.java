@@ -0,0 +1,52 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.sql.ResultSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.shadabshamsi.catalogservice.config.IsbnFilterProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+class IsbnFilterTests {
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final IsbnFilter isbnFilter =
+            new IsbnFilter(jdbcTemplate, mock(PlatformTransactionManager.class), new IsbnFilterProperties());
+
+    @BeforeEach
+    void buildWithOneBook() throws Exception {
+        var resultSet = mock(ResultSet.class);
+        given(resultSet.getString(1)).willReturn("1234567890");
+        given(jdbcTemplate.queryForObject("select count(*) from book", Long.class)).willReturn(1L);
+        willAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(resultSet);
+            return null;
+        }).given(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        isbnFilter.rebuild();
+    }
+
+    @Test
+    void whenNotificationsActiveThenUnknownIsbnReportedAbsent() {
+        isbnFilter.setNotificationsActive(true);
+
+        assertThat(isbnFilter.mightContain("1234567890")).isTrue();
+        assertThat(isbnFilter.mightContain("9999999999")).isFalse();
+    }
+
+    @Test
+    void whenNotificationsInactiveThenEveryIsbnMightBePresent() {
+        isbnFilter.setNotificationsActive(true);
+        isbnFilter.setNotificationsActive(false);
+
+        assertThat(isbnFilter.mightContain("9999999999")).isTrue();
+    }
+}
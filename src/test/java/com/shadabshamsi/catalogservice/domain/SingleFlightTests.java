@@ -0,0 +1,99 @@
+package com.shadabshamsi.catalogservice.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTests {
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsForSameKeyShareOneResult() throws Exception {
+        var results = callConcurrently(() -> "result");
+
+        for (var result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        }
+        assertThat(calls).hasValue(1);
+        assertThat(meterRegistry.counter("catalog.requests.collapsed", "operation", "test").count())
+                .isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    void concurrentCallsForSameKeyShareOneException() throws Exception {
+        var failure = new QueryTimeoutException("too slow");
+        var results = callConcurrently(() -> {
+            throw failure;
+        });
+
+        for (var result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasCause(failure);
+        }
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void completedCallIsNotRemembered() {
+        singleFlight.execute("isbn", () -> "first");
+
+        assertThat(singleFlight.execute("isbn", () -> "second")).isEqualTo("second");
+    }
+
+    private List<Future<String>> callConcurrently(Supplier<String> call) throws Exception {
+        var leaderStarted = new CountDownLatch(1);
+        var results = new ArrayList<Future<String>>();
+        results.add(executor.submit(() -> singleFlight.execute("isbn", () -> {
+            calls.incrementAndGet();
+            leaderStarted.countDown();
+            awaitRelease();
+            return call.get();
+        })));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("isbn", () -> {
+                calls.incrementAndGet();
+                return call.get();
+            })));
+        }
+        // Followers have joined once each has been counted as collapsed.
+        while (meterRegistry.counter("catalog.requests.collapsed", "operation", "test").count() < CALLERS - 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        return results;
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.shadabshamsi.catalogservice.web;
+
+import java.time.Instant;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shadabshamsi.catalogservice.domain.Book;
+import com.shadabshamsi.catalogservice.domain.BookPage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookBinaryFormatTests {
+    private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+    private final ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+
+    private final BookPage page = new BookPage(IntStream.range(0, 100)
+            .mapToObj(i -> new Book((long) i, String.valueOf(1_000_000_000L + i), "Title " + i, "Author " + i, 10.5,
+                    "Polarsophia", Instant.EPOCH, Instant.EPOCH, "isabelle", "isabelle", 1))
+            .toList(), "MTAw");
+
+    @Test
+    void binaryFormatsRoundTripPage() throws Exception {
+        assertThat(smileMapper.readValue(smileMapper.writeValueAsBytes(page), BookPage.class)).isEqualTo(page);
+        assertThat(cborMapper.readValue(cborMapper.writeValueAsBytes(page), BookPage.class)).isEqualTo(page);
+    }
+
+    @Test
+    void binaryFormatsAreSmallerThanJson() throws Exception {
+        var jsonSize = jsonMapper.writeValueAsBytes(page).length;
+
+        assertThat(cborMapper.writeValueAsBytes(page).length).isLessThan(jsonSize);
+        // Smile writes the repeated field names once per page instead of once per book
+        assertThat(smileMapper.writeValueAsBytes(page).length).isLessThan(jsonSize * 3 / 4);
+    }
+}
@@ -1,27 +1,70 @@
 package com.shadabshamsi.catalogservice.web;
 
+import com.shadabshamsi.catalogservice.config.AdmissionRejectedException;
 import com.shadabshamsi.catalogservice.config.SecurityConfig;
+import com.shadabshamsi.catalogservice.config.WebConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+import java.util.List;
+import java.util.Map;
+
+import com.shadabshamsi.catalogservice.domain.Book;
+import com.shadabshamsi.catalogservice.domain.BookChange;
+import com.shadabshamsi.catalogservice.domain.BookChangeFeed;
+import com.shadabshamsi.catalogservice.domain.BookChangePage;
+import com.shadabshamsi.catalogservice.domain.BookField;
+import com.shadabshamsi.catalogservice.domain.BookFilter;
+import com.shadabshamsi.catalogservice.domain.BookImportError;
+import com.shadabshamsi.catalogservice.domain.BookImportFormat;
+import com.shadabshamsi.catalogservice.domain.BookImportResult;
+import com.shadabshamsi.catalogservice.domain.BookImportService;
+import com.shadabshamsi.catalogservice.domain.BookLookup;
+import com.shadabshamsi.catalogservice.domain.BookLookupTooLargeException;
 import com.shadabshamsi.catalogservice.domain.BookNotFoundException;
+import com.shadabshamsi.catalogservice.domain.BookPage;
+import com.shadabshamsi.catalogservice.domain.BookProjection;
+import com.shadabshamsi.catalogservice.domain.BookProjectionPage;
 import com.shadabshamsi.catalogservice.domain.BookService;
+import com.shadabshamsi.catalogservice.domain.BookSort;
+import com.shadabshamsi.catalogservice.domain.BookVersion;
+import com.shadabshamsi.catalogservice.domain.BookVersionConflictException;
+import com.shadabshamsi.catalogservice.domain.InvalidPageTokenException;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 @WebMvcTest(BookController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, WebConfig.class, SimpleMeterRegistry.class})
 class BookControllerMvcTests {
 
     @MockBean
@@ -30,6 +73,14 @@ class BookControllerMvcTests {
     private MockMvc mockMvc;
     @MockBean
     private BookService bookService;
+    @MockBean
+    private BookImportService bookImportService;
+    @MockBean
+    private BookChangeFeed bookChangeFeed;
+    @MockBean
+    private BookPageSnapshot bookPageSnapshot;
+    @Autowired
+    private SimpleMeterRegistry meterRegistry;
 
     @Test
     void whenGetBookNotExistingThenShouldReturn404() throws Exception {
@@ -38,6 +89,312 @@ class BookControllerMvcTests {
         mockMvc.perform(get("/books/" + isbn)).andExpect(status().isNotFound());
     }
 
+    @Test
+    void whenGetBookNotExistingThenShouldCountNotFoundOutcome() throws Exception {
+        String isbn = "123";
+        given(bookService.viewBookDetails(isbn)).willThrow(BookNotFoundException.class);
+        double before = meterRegistry.counter("catalog.book.outcomes", "outcome", "not_found").count();
+        mockMvc.perform(get("/books/" + isbn)).andExpect(status().isNotFound());
+        assertThat(meterRegistry.counter("catalog.book.outcomes", "outcome", "not_found").count())
+                .isEqualTo(before + 1);
+    }
+
+    @Test
+    void whenAdmissionRejectedThenShouldReturn503WithRetryAfter() throws Exception {
+        String isbn = "1234567890";
+        given(bookService.viewBookDetails(isbn)).willThrow(new AdmissionRejectedException(Duration.ofMillis(1500)));
+        mockMvc.perform(get("/books/" + isbn))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+    }
+
+    @Test
+    void whenGetBooksByIsbnThenShouldReturnFoundAndNotFound() throws Exception {
+        var book = Book.of("1234567890", "Title", "Author", 9.90, null);
+        given(bookService.viewBooks(List.of("1234567890", "1234567891")))
+                .willReturn(new BookLookup(List.of(book), List.of("1234567891")));
+        mockMvc.perform(get("/books").param("isbn", "1234567890,1234567891"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books[0].isbn").value(book.isbn()))
+                .andExpect(jsonPath("$.notFound[0]").value("1234567891"));
+        verify(bookPageSnapshot, never()).current();
+    }
+
+    @Test
+    void whenGetTooManyBooksByIsbnThenShouldReturn400() throws Exception {
+        given(bookService.viewBooks(any())).willThrow(new BookLookupTooLargeException(1));
+        mockMvc.perform(get("/books").param("isbn", "1234567890,1234567891"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenGetBooksThenShouldReturnPageWithNextToken() throws Exception {
+        var book = Book.of("1234567890", "Title", "Author", 9.90, null);
+        given(bookService.viewBookPage(null, null, 1)).willReturn(new BookPage(List.of(book), "MQ"));
+        mockMvc.perform(get("/books").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books[0].isbn").value(book.isbn()))
+                .andExpect(jsonPath("$.nextPageToken").value("MQ"));
+    }
+
+    @Test
+    void whenGetBooksAcceptingSmileThenShouldReturnSmilePage() throws Exception {
+        var book = Book.of("1234567890", "Title", "Author", 9.90, null);
+        given(bookService.viewBookPage(null, null, 1)).willReturn(new BookPage(List.of(book), "MQ"));
+        var response = mockMvc.perform(get("/books").param("limit", "1").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse();
+        var page = Jackson2ObjectMapperBuilder.smile().build()
+                .readValue(response.getContentAsByteArray(), BookPage.class);
+        assertThat(page.books()).extracting(Book::isbn).containsExactly(book.isbn());
+        assertThat(page.nextPageToken()).isEqualTo("MQ");
+    }
+
+    @Test
+    void whenGetFirstPageWithGzipThenShouldServeSnapshotWithoutQuery() throws Exception {
+        var json = "{\"books\":[],\"nextPageToken\":null}";
+        given(bookPageSnapshot.current())
+                .willReturn(BookPageSnapshot.Snapshot.of("abc-7", json.getBytes(StandardCharsets.UTF_8)));
+        var response = mockMvc.perform(get("/books").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"catalog-abc-7;gzip\""))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItems(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse();
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(json);
+        }
+        verify(bookService, never()).viewBookPage(any(), any(), any());
+    }
+
+    @Test
+    void whenGetFirstPageWithoutGzipThenShouldServePlainSnapshot() throws Exception {
+        var json = "{\"books\":[],\"nextPageToken\":null}";
+        given(bookPageSnapshot.current())
+                .willReturn(BookPageSnapshot.Snapshot.of("abc-7", json.getBytes(StandardCharsets.UTF_8)));
+        mockMvc.perform(get("/books").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"catalog-abc-7\""))
+                .andExpect(content().json(json));
+    }
+
+    @Test
+    void whenGetBooksWithInvalidPageTokenThenShouldReturn400() throws Exception {
+        given(bookService.viewBookPage(null, "bogus", null)).willThrow(new InvalidPageTokenException("bogus"));
+        mockMvc.perform(get("/books").param("pageToken", "bogus")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenGetBookThenShouldReturnVersionETag() throws Exception {
+        var book = new Book(42L, "1234567890", "Title", "Author", 9.90, null, null, null, null, null, 3);
+        given(bookService.viewBookDetails(book.isbn())).willReturn(book);
+        mockMvc.perform(get("/books/" + book.isbn()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"42-3\""));
+    }
+
+    @Test
+    void whenGetBookAsCborThenShouldReturnFormatETag() throws Exception {
+        var book = new Book(42L, "1234567890", "Title", "Author", 9.90, null, null, null, null, null, 3);
+        given(bookService.viewBookDetails(book.isbn())).willReturn(book);
+        mockMvc.perform(get("/books/" + book.isbn()).accept("application/json;q=0.5, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"42-3;cbor\""))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+    }
+
+    @Test
+    void whenGetBookAsSmileWithJsonETagThenShouldNotReturn304() throws Exception {
+        var book = new Book(42L, "1234567890", "Title", "Author", 9.90, null, null, null, null, null, 3);
+        given(bookService.viewBookVersion(book.isbn())).willReturn(new BookVersion(42L, 3));
+        given(bookService.viewBookDetails(book.isbn())).willReturn(book);
+        mockMvc.perform(get("/books/" + book.isbn()).accept("application/x-jackson-smile")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"42-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"42-3;smile\""));
+    }
+
+    @Test
+    void whenGetBookWithFieldsThenShouldReturnOnlyThoseFields() throws Exception {
+        var book = new Book(42L, "1234567890", "Title", "Author", 9.90, null, null, null, null, null, 3);
+        var fields = BookField.parse("price,isbn");
+        given(bookService.viewBookDetails(book.isbn(), fields)).willReturn(BookProjection.of(book, fields));
+        mockMvc.perform(get("/books/" + book.isbn()).param("fields", "price,isbn"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"42-3;fields=isbn,price\""))
+                .andExpect(content().json("{\"isbn\":\"1234567890\",\"price\":9.90}", true));
+    }
+
+    @Test
+    void whenGetBooksWithFieldsThenShouldSkipSnapshotAndReturnProjectedPage() throws Exception {
+        var book = new Book(42L, "1234567890", "Title", "Author", 9.90, null, null, null, null, null, 3);
+        var fields = BookField.parse("title");
+        given(bookService.viewCatalogVersion()).willReturn("abc-7");
+        given(bookService.viewBookPage(null, null, null, fields))
+                .willReturn(new BookProjectionPage(List.of(BookProjection.of(book, fields)), "NDI"));
+        mockMvc.perform(get("/books").param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"catalog-abc-7;fields=title\""))
+                .andExpect(content().json("{\"books\":[{\"title\":\"Title\"}],\"nextPageToken\":\"NDI\"}", true));
+        verify(bookPageSnapshot, never()).current();
+    }
+
+    @Test
+    void whenGetBooksWithFilterAndSortThenShouldReturnFilteredPage() throws Exception {
+        var book = new Book(42L, "1234567890", "Title", "Author", 9.90, null, null, null, null, null, 3);
+        var filter = new BookFilter("Author", null, null, 20.0);
+        given(bookService.viewBookPage(null, null, null, filter, BookSort.PRICE_DESC))
+                .willReturn(new BookPage(List.of(book), "LXByaWNlfDkuOXw0Mg"));
+        mockMvc.perform(get("/books").param("author", "Author").param("maxPrice", "20").param("sort", "-price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books[0].isbn").value(book.isbn()))
+                .andExpect(jsonPath("$.nextPageToken").value("LXByaWNlfDkuOXw0Mg"));
+        verify(bookPageSnapshot, never()).current();
+    }
+
+    @Test
+    void whenGetBooksWithUnknownSortThenShouldReturn400() throws Exception {
+        mockMvc.perform(get("/books").param("sort", "title")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenGetBookWithUnknownFieldThenShouldReturn400() throws Exception {
+        mockMvc.perform(get("/books/1234567890").param("fields", "isbn,search_vector"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenGetBookWithMatchingETagThenShouldReturn304WithoutLoadingBook() throws Exception {
+        var isbn = "1234567890";
+        given(bookService.viewBookVersion(isbn)).willReturn(new BookVersion(42L, 3));
+        mockMvc.perform(get("/books/" + isbn).header(HttpHeaders.IF_NONE_MATCH, "\"42-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+        verify(bookService, never()).viewBookDetails(isbn);
+    }
+
+    @Test
+    void whenGetBooksWithCurrentCatalogETagThenShouldReturn304() throws Exception {
+        given(bookService.viewCatalogVersion()).willReturn("abc-7");
+        mockMvc.perform(get("/books").header(HttpHeaders.IF_NONE_MATCH, "\"catalog-abc-7\""))
+                .andExpect(status().isNotModified());
+        verify(bookService, never()).viewBookPage(any(), any(), any());
+    }
+
+    @Test
+    void whenSearchBooksThenShouldReturnRankedPage() throws Exception {
+        var book = Book.of("1234567890", "Head First Java", "Kathy Sierra", 15.5, null);
+        given(bookService.searchBooks("java", null, null)).willReturn(new BookPage(List.of(book), null));
+        mockMvc.perform(get("/books/search").param("q", "java"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books[0].title").value(book.title()));
+    }
+
+    @Test
+    void whenGetChangesThenShouldReturnChangesWithTombstones() throws Exception {
+        var book = Book.of("1234567890", "Title", "Author", 9.90, null);
+        var changes = List.of(
+                new BookChange(book.isbn(), BookChange.Operation.INSERT, Instant.EPOCH, book),
+                new BookChange("1234567891", BookChange.Operation.DELETE, Instant.EPOCH, null));
+        given(bookChangeFeed.changesSince("MTB8Mw", 2)).willReturn(new BookChangePage(changes, "MTJ8NQ", true, false));
+        mockMvc.perform(get("/books/changes").param("since", "MTB8Mw").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].book.isbn").value(book.isbn()))
+                .andExpect(jsonPath("$.changes[1].operation").value("DELETE"))
+                .andExpect(jsonPath("$.changes[1].book").isEmpty())
+                .andExpect(jsonPath("$.cursor").value("MTJ8NQ"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void whenImportNdjsonWithEmployeeRoleThenShouldReturnResult() throws Exception {
+        var result = new BookImportResult(2, 1, 0, 1,
+                List.of(new BookImportError(2, Map.of("isbn", "The Book ISBN must be valid"))));
+        given(bookImportService.importBooks(any(), eq(BookImportFormat.NDJSON))).willReturn(result);
+        mockMvc.perform(MockMvcRequestBuilders.post("/books/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n{}\n")
+                        .with(SecurityMockMvcRequestPostProcessors.jwt()
+                                .authorities(new SimpleGrantedAuthority("ROLE_employee"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2));
+    }
+
+    @Test
+    void whenImportWithCustomerRoleThenShouldReturn403() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/books/import")
+                        .contentType("text/csv")
+                        .content("isbn,title,author,price\n")
+                        .with(SecurityMockMvcRequestPostProcessors.jwt()
+                                .authorities(new SimpleGrantedAuthority("ROLE_customer"))))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void whenPutBookWithIfMatchThenShouldPassExpectedVersion() throws Exception {
+        var isbn = "7373731394";
+        var savedBook = new Book(42L, isbn, "Title", "Author", 9.90, null, null, null, null, null, 4);
+        given(bookService.editBookDetails(eq(isbn), any(), eq(new BookVersion(42L, 3)))).willReturn(savedBook);
+        mockMvc.perform(MockMvcRequestBuilders.put("/books/" + isbn)
+                        .header(HttpHeaders.IF_MATCH, "\"42-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isbn\":\"7373731394\",\"title\":\"Title\",\"author\":\"Author\",\"price\":9.90}")
+                        .with(SecurityMockMvcRequestPostProcessors.jwt()
+                                .authorities(new SimpleGrantedAuthority("ROLE_employee"))))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"42-4\""));
+    }
+
+    @Test
+    void whenPutBookAsCborThenShouldReturnCbor() throws Exception {
+        var isbn = "7373731394";
+        var book = Book.of(isbn, "Title", "Author", 9.90, null);
+        var savedBook = new Book(42L, isbn, "Title", "Author", 9.90, null, null, null, null, null, 1);
+        given(bookService.editBookDetails(isbn, book, null)).willReturn(savedBook);
+        var cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        var response = mockMvc.perform(MockMvcRequestBuilders.put("/books/" + isbn)
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(book))
+                        .with(SecurityMockMvcRequestPostProcessors.jwt()
+                                .authorities(new SimpleGrantedAuthority("ROLE_employee"))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"42-1;cbor\""))
+                .andReturn().getResponse();
+        assertThat(cborMapper.readValue(response.getContentAsByteArray(), Book.class)).isEqualTo(savedBook);
+    }
+
+    @Test
+    void whenPutBookUnderOtherIsbnThenShouldReturn400() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.put("/books/abc")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isbn\":\"7373731394\",\"title\":\"Title\",\"author\":\"Author\",\"price\":9.90}")
+                        .with(SecurityMockMvcRequestPostProcessors.jwt()
+                                .authorities(new SimpleGrantedAuthority("ROLE_employee"))))
+                .andExpect(status().isBadRequest());
+        verify(bookService, never()).editBookDetails(any(), any(), any());
+    }
+
+    @Test
+    void whenPutBookWithStaleIfMatchThenShouldReturn412() throws Exception {
+        var isbn = "7373731394";
+        given(bookService.editBookDetails(eq(isbn), any(), eq(new BookVersion(42L, 3)))).willThrow(new BookVersionConflictException(isbn));
+        mockMvc.perform(MockMvcRequestBuilders.put("/books/" + isbn)
+                        .header(HttpHeaders.IF_MATCH, "\"42-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isbn\":\"7373731394\",\"title\":\"Title\",\"author\":\"Author\",\"price\":9.90}")
+                        .with(SecurityMockMvcRequestPostProcessors.jwt()
+                                .authorities(new SimpleGrantedAuthority("ROLE_employee"))))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void whenDeleteBookWithEmployeeRoleThenShouldReturn204() throws Exception {
         var isbn = "7373731394";
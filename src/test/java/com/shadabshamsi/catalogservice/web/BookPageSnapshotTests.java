@@ -0,0 +1,51 @@
+package com.shadabshamsi.catalogservice.web;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.shadabshamsi.catalogservice.domain.Book;
+import com.shadabshamsi.catalogservice.domain.BookPage;
+import com.shadabshamsi.catalogservice.domain.BookService;
+import com.shadabshamsi.catalogservice.domain.CatalogVersion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class BookPageSnapshotTests {
+    private final BookService bookService = mock(BookService.class);
+    private final AtomicLong storedVersion = new AtomicLong();
+    private final CatalogVersion catalogVersion = new CatalogVersion(storedVersion::get);
+    private final BookPageSnapshot bookPageSnapshot =
+            new BookPageSnapshot(bookService, Jackson2ObjectMapperBuilder.json().build(), catalogVersion);
+
+    @Test
+    void snapshotIsServedUntilCatalogVersionMoves() {
+        given(bookService.viewCatalogVersion()).willAnswer(invocation -> catalogVersion.current());
+        given(bookService.viewBookPage(null, null, null)).willReturn(
+                new BookPage(List.of(Book.of("1234567890", "Title", "Author", 9.90, null)), null));
+        bookPageSnapshot.rebuild();
+
+        var snapshot = bookPageSnapshot.current();
+        assertThat(snapshot).isNotNull();
+        assertThat(snapshot.catalogVersion()).isEqualTo(catalogVersion.current());
+        assertThat(snapshot.json().remaining()).isGreaterThan(0);
+        assertThat(snapshot.json().isDirect()).isTrue();
+
+        storedVersion.incrementAndGet();
+        assertThat(bookPageSnapshot.current()).isNull();
+    }
+
+    @Test
+    void eachBodyReadsTheWholeSnapshot() throws Exception {
+        var snapshot = BookPageSnapshot.Snapshot.of("abc-1", "{\"books\":[]}".getBytes());
+        var body = snapshot.body(false);
+
+        assertThat(body.contentLength()).isEqualTo(12);
+        assertThat(body.getContentAsByteArray()).isEqualTo("{\"books\":[]}".getBytes());
+        assertThat(body.getContentAsByteArray()).isEqualTo("{\"books\":[]}".getBytes());
+    }
+}
@@ -0,0 +1,88 @@
+package com.shadabshamsi.catalogservice.web;
+
+import com.shadabshamsi.catalogservice.config.PaginationProperties;
+import com.shadabshamsi.catalogservice.config.SecurityConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.shadabshamsi.catalogservice.domain.Book;
+import com.shadabshamsi.catalogservice.reactive.ReactiveBookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReactiveBookController.class)
+@Import({SecurityConfig.class, PaginationProperties.class, SimpleMeterRegistry.class})
+class ReactiveBookControllerMvcTests {
+
+    @MockBean
+    JwtDecoder jwtDecoder;
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private ReactiveBookRepository reactiveBookRepository;
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Test
+    void whenStreamBooksThenShouldWalkPagesAsNdjson() throws Exception {
+        int pageSize = paginationProperties.getMaxSize();
+        given(reactiveBookRepository.findPageAfter(0, pageSize)).willReturn(booksWithIds(1, pageSize));
+        given(reactiveBookRepository.findPageAfter(pageSize, pageSize)).willReturn(booksWithIds(pageSize + 1, 1));
+
+        var result = mockMvc.perform(get("/v2/books").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        var body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body.lines()).hasSize(pageSize + 1);
+    }
+
+    @Test
+    void whenGetBookByIsbnThenShouldReturnBook() throws Exception {
+        var book = Book.of("1234567890", "Title", "Author", 9.90, null);
+        given(reactiveBookRepository.findByIsbn(book.isbn())).willReturn(Mono.just(book));
+
+        var result = mockMvc.perform(get("/v2/books/" + book.isbn()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.isbn").value(book.isbn()));
+    }
+
+    @Test
+    void whenGetBookByIsbnNotExistingThenShouldReturn404() throws Exception {
+        given(reactiveBookRepository.findByIsbn("123")).willReturn(Mono.empty());
+
+        var result = mockMvc.perform(get("/v2/books/123"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isNotFound());
+    }
+
+    private static Flux<Book> booksWithIds(long firstId, int count) {
+        return Flux.fromStream(LongStream.range(firstId, firstId + count)
+                .mapToObj(id -> new Book(id, "123456789" + (id % 10), "Title", "Author", 9.90,
+                        null, null, null, null, null, 1)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.shadabshamsi.catalogservice.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.shadabshamsi.catalogservice.config.ServerTimingProperties;
+import com.shadabshamsi.catalogservice.web.ServerTiming.Phase;
+
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServlet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerTimingFilterTests {
+    private final ServerTimingProperties properties = new ServerTimingProperties();
+
+    @Test
+    void whenEnabledThenPhasesAreReported() throws Exception {
+        properties.setEnabled(true);
+        var response = new MockHttpServletResponse();
+
+        new ServerTimingFilter(properties).doFilter(new MockHttpServletRequest("GET", "/books"), response,
+                new MockFilterChain(servlet(), ServerTimingFilter.securityDone()));
+
+        assertThat(response.getHeader(ServerTiming.HEADER))
+                .matches("security;dur=[0-9.]+, service;dur=[0-9.]+, db;dur=[0-9.]+, total;dur=[0-9.]+");
+        assertThat(ServerTiming.current()).isNull();
+    }
+
+    @Test
+    void whenDisabledThenNothingIsTimed() throws Exception {
+        var response = new MockHttpServletResponse();
+
+        new ServerTimingFilter(properties).doFilter(new MockHttpServletRequest("GET", "/books"), response,
+                new MockFilterChain(new HttpServlet() {
+                    @Override
+                    public void service(ServletRequest req, ServletResponse res) {
+                        assertThat(ServerTiming.current()).isNull();
+                    }
+                }));
+
+        assertThat(response.getHeader(ServerTiming.HEADER)).isNull();
+    }
+
+    @Test
+    void nestedCallsOfAPhaseAreCountedOnce() {
+        var timing = ServerTiming.begin();
+        try {
+            assertThat(timing.enter(Phase.POOL)).isTrue();
+            assertThat(timing.enter(Phase.POOL)).isFalse();
+            timing.exit(Phase.POOL, 0);
+            timing.exit(Phase.POOL, 2_000_000);
+            timing.securityDone();
+            timing.finish();
+
+            assertThat(timing.headerValue()).contains("pool;dur=2.000");
+        } finally {
+            ServerTiming.clear();
+        }
+    }
+
+    // Stands in for a controller calling the service, which calls a repository
+    private static Servlet servlet() {
+        return new HttpServlet() {
+            @Override
+            public void service(ServletRequest req, ServletResponse res) {
+                var timing = ServerTiming.current();
+                timing.enter(Phase.SERVICE);
+                timing.enter(Phase.DB);
+                timing.exit(Phase.DB, 1_000_000);
+                timing.exit(Phase.SERVICE, 3_000_000);
+            }
+        };
+    }
+}